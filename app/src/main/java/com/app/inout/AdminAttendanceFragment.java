@@ -12,11 +12,11 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 import com.inout.app.databinding.FragmentAdminAttendanceBinding;
 import com.inout.app.models.User;
+import com.inout.app.viewmodels.AdminDirectoryViewModel;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,12 +25,12 @@ import java.util.List;
  * Admin view for Attendance.
  * 1. Select employee from Spinner.
  * 2. Opens the Professional Attendance Profile Pop-up (CV-style).
+ * 3. Opens the company month grid (all employees × all days).
  */
 public class AdminAttendanceFragment extends Fragment {
 
     private static final String TAG = "AdminAttendanceFrag";
     private FragmentAdminAttendanceBinding binding;
-    private FirebaseFirestore db;
     
     private List<User> employees;
 
@@ -44,45 +44,43 @@ public class AdminAttendanceFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = FirebaseFirestore.getInstance();
         employees = new ArrayList<>();
 
         // Load the list of employees into the spinner first
-        loadEmployeeList();
+        observeEmployeeList();
+
+        binding.btnCompanyMatrix.setOnClickListener(v ->
+                AttendanceMatrixDialog.newInstance().show(getChildFragmentManager(), "AttendanceMatrixDialog"));
     }
 
     /**
-     * Fetches all approved employees to populate the selection spinner.
-     * This logic is identical to your original code.
+     * Approved employees come from the activity-scoped AdminDirectoryViewModel,
+     * so returning to this tab needs no query.
      */
-    private void loadEmployeeList() {
-        binding.progressBar.setVisibility(View.VISIBLE);
-        db.collection("users")
-                .whereEqualTo("role", "employee")
-                .whereEqualTo("approved", true)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    binding.progressBar.setVisibility(View.GONE);
-                    employees.clear();
-                    List<String> employeeNames = new ArrayList<>();
-                    employeeNames.add("Select an Employee");
-
-                    for (DocumentSnapshot doc : queryDocumentSnapshots) {
-                        User user = doc.toObject(User.class);
-                        if (user != null) {
-                            user.setUid(doc.getId()); // Ensure UID is preserved
-                            employees.add(user);
-                            // Format: Name (EmployeeID)
-                            employeeNames.add(user.getName() + " (" + user.getEmployeeId() + ")");
-                        }
-                    }
-
-                    setupSpinner(employeeNames);
-                })
-                .addOnFailureListener(e -> {
-                    binding.progressBar.setVisibility(View.GONE);
-                    Toast.makeText(getContext(), "Error loading employees", Toast.LENGTH_SHORT).show();
-                });
+    private void observeEmployeeList() {
+        AdminDirectoryViewModel directory = new ViewModelProvider(requireActivity()).get(AdminDirectoryViewModel.class);
+        binding.progressBar.setVisibility(directory.getApprovedEmployees().getValue() == null ? View.VISIBLE : View.GONE);
+
+        directory.getApprovedEmployees().observe(getViewLifecycleOwner(), users -> {
+            binding.progressBar.setVisibility(View.GONE);
+            employees.clear();
+            List<String> employeeNames = new ArrayList<>();
+            employeeNames.add("Select an Employee");
+
+            for (User user : users) {
+                employees.add(user);
+                // Format: Name (EmployeeID)
+                employeeNames.add(user.getName() + " (" + user.getEmployeeId() + ")");
+            }
+
+            setupSpinner(employeeNames);
+        });
+        directory.getErrors().observe(getViewLifecycleOwner(), message -> {
+            if (message == null) return;
+            binding.progressBar.setVisibility(View.GONE);
+            Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+            directory.onErrorShown();
+        });
     }
 
     /**
@@ -2,11 +2,13 @@ package com.inout.app;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.MessageQueue;
 import android.view.Menu;
 import android.view.MenuItem; 
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.RecyclerView;
 import androidx.navigation.NavController;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.navigation.ui.AppBarConfiguration;
@@ -16,14 +18,21 @@ import com.google.android.gms.auth.api.signin.GoogleSignIn;
 import com.google.android.gms.auth.api.signin.GoogleSignInClient;
 import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
 import com.google.firebase.auth.FirebaseAuth;
+import com.inout.app.adapters.AttendanceRowPool;
 import com.inout.app.databinding.ActivityAdminDashboardBinding;
+import com.inout.app.utils.AttendanceMonthCache;
 import com.inout.app.utils.EncryptionHelper;
+import com.inout.app.utils.PunchQueue;
 
-public class AdminDashboardActivity extends AppCompatActivity {
+public class AdminDashboardActivity extends AppCompatActivity implements AttendanceRowPool.Owner {
 
     private ActivityAdminDashboardBinding binding;
     private FirebaseAuth mAuth;
 
+    // Attendance table rows, created while the dashboard is idle (see AttendanceRowPool)
+    private final RecyclerView.RecycledViewPool attendanceRowPool = AttendanceRowPool.create();
+    private MessageQueue.IdleHandler rowPoolPrewarm;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -52,6 +61,21 @@ public class AdminDashboardActivity extends AppCompatActivity {
             NavigationUI.setupActionBarWithNavController(this, navController, appBarConfiguration);
             NavigationUI.setupWithNavController(binding.navView, navController);
         }
+
+        // Rows for the attendance profile dialog are ready before it is first opened
+        rowPoolPrewarm = AttendanceRowPool.prewarmWhenIdle(this, attendanceRowPool, AttendanceRowPool.DEFAULT_ROWS);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // The pending prewarm would otherwise keep this activity alive
+        AttendanceRowPool.cancelPrewarm(rowPoolPrewarm);
+    }
+
+    @Override
+    public RecyclerView.RecycledViewPool getAttendanceRowPool() {
+        return attendanceRowPool;
     }
 
     // Create the top options menu (e.g., Logout)
@@ -82,7 +106,8 @@ public class AdminDashboardActivity extends AppCompatActivity {
      * 4. Returns to the absolute landing page (Splash/Role Selection).
      */
     private void logout() {
-        // 1. Sign out from Firebase
+        // 1. Sign out from Firebase (pending punches stay with this user and are never replayed under another one)
+        PunchQueue.getInstance(this).signOut();
         mAuth.signOut();
         
         // 2. Configure and sign out from Google to allow picking a different Gmail next time
@@ -95,6 +120,7 @@ public class AdminDashboardActivity extends AppCompatActivity {
         googleSignInClient.signOut().addOnCompleteListener(task -> {
             // 3. Clear the stored Role (Admin) locally
             EncryptionHelper.getInstance(AdminDashboardActivity.this).clearUserRole();
+            AttendanceMonthCache.getInstance().clear();
             
             // 4. Return to SplashActivity and clear the entire activity history stack
             Intent intent = new Intent(AdminDashboardActivity.this, SplashActivity.class);
@@ -106,7 +132,10 @@ public class AdminDashboardActivity extends AppCompatActivity {
 
     private void switchCompany() {
         // To switch company, we go back to the Setup screen
+        PunchQueue.getInstance(this).signOut();
         mAuth.signOut();
+        // Cached months belong to the old project
+        AttendanceMonthCache.getInstance().clear();
         // Note: For switching company, we might not clear the role, 
         // just go back to AdminSetupActivity.
         Intent intent = new Intent(this, AdminSetupActivity.class);
@@ -0,0 +1,185 @@
+package com.inout.app.viewmodels;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.inout.app.models.CompanyConfig;
+import com.inout.app.models.User;
+import com.inout.app.utils.FrameCoalescer;
+import com.inout.app.utils.SnapshotExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Shared data of the admin screens: all employees and all office locations.
+ * Scoped to AdminDashboardActivity, so the employees, locations and attendance tabs use the
+ * same two listeners, and rotations or bottom-nav switches re-render from memory.
+ * Lists are published as new unmodifiable copies; null means "not loaded yet".
+ * Snapshots are mapped and sorted on the SnapshotExecutor; finished lists are coalesced to at
+ * most one update per frame (bulk approvals, many check-ins at once).
+ */
+public class AdminDirectoryViewModel extends ViewModel {
+
+    private static final String TAG = "AdminDirectoryVM";
+
+    // Employees by name, case-insensitive; unnamed accounts last
+    private static final Comparator<User> BY_NAME = (a, b) -> {
+        if (a.getName() == null || b.getName() == null) {
+            return a.getName() == null ? (b.getName() == null ? 0 : 1) : -1;
+        }
+        return a.getName().compareToIgnoreCase(b.getName());
+    };
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+
+    private final MutableLiveData<List<User>> employees = new MutableLiveData<>();
+    private final MutableLiveData<List<User>> approvedEmployees = new MutableLiveData<>();
+    private final MutableLiveData<List<CompanyConfig>> locations = new MutableLiveData<>();
+    private final MutableLiveData<String> errors = new MutableLiveData<>();
+
+    private ListenerRegistration employeesListener;
+    private ListenerRegistration locationsListener;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final FrameCoalescer<Roster> employeeUpdates = new FrameCoalescer<>(this::publishEmployees);
+    private final FrameCoalescer<List<CompanyConfig>> locationUpdates = new FrameCoalescer<>(locations::setValue);
+
+    /**
+     * Both employee lists of one snapshot, published together.
+     */
+    private static final class Roster {
+        final List<User> all;
+        final List<User> approved;
+
+        Roster(List<User> all, List<User> approved) {
+            this.all = all;
+            this.approved = approved;
+        }
+    }
+
+    public AdminDirectoryViewModel() {
+        listenForEmployees();
+        listenForLocations();
+    }
+
+    /**
+     * Every user with the employee role, approved or not.
+     */
+    public LiveData<List<User>> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * Approved employees only (derived from the same snapshot, no extra query).
+     */
+    public LiveData<List<User>> getApprovedEmployees() {
+        return approvedEmployees;
+    }
+
+    public LiveData<List<CompanyConfig>> getLocations() {
+        return locations;
+    }
+
+    /**
+     * One-off load errors. Cleared via onErrorShown().
+     */
+    public LiveData<String> getErrors() {
+        return errors;
+    }
+
+    public void onErrorShown() {
+        errors.setValue(null);
+    }
+
+    private void listenForEmployees() {
+        employeesListener = db.collection("users")
+                .whereEqualTo("role", "employee")
+                .addSnapshotListener(SnapshotExecutor.get(), (value, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Employee listen failed", error);
+                        mainHandler.post(() -> {
+                            employeeUpdates.flush();
+                            errors.setValue("Error loading employees");
+                            if (employees.getValue() == null) {
+                                publishEmployees(new Roster(Collections.emptyList(), Collections.emptyList()));
+                            }
+                        });
+                        return;
+                    }
+                    if (value != null) employeeUpdates.post(mapEmployees(value));
+                });
+    }
+
+    /**
+     * Runs on the SnapshotExecutor.
+     */
+    private static Roster mapEmployees(QuerySnapshot value) {
+        List<User> all = new ArrayList<>();
+        for (DocumentSnapshot doc : value) {
+            User user = doc.toObject(User.class);
+            if (user != null) {
+                user.setUid(doc.getId());
+                all.add(user);
+            }
+        }
+        Collections.sort(all, BY_NAME);
+
+        List<User> approved = new ArrayList<>();
+        for (User user : all) {
+            if (user.isApproved()) approved.add(user);
+        }
+        return new Roster(Collections.unmodifiableList(all), Collections.unmodifiableList(approved));
+    }
+
+    private void publishEmployees(Roster roster) {
+        employees.setValue(roster.all);
+        approvedEmployees.setValue(roster.approved);
+    }
+
+    private void listenForLocations() {
+        locationsListener = db.collection("locations").addSnapshotListener(SnapshotExecutor.get(), (value, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Location listen failed", error);
+                return;
+            }
+            if (value != null) locationUpdates.post(mapLocations(value));
+        });
+    }
+
+    /**
+     * Runs on the SnapshotExecutor.
+     */
+    private static List<CompanyConfig> mapLocations(QuerySnapshot value) {
+        List<CompanyConfig> list = new ArrayList<>();
+        for (DocumentSnapshot doc : value) {
+            CompanyConfig config = doc.toObject(CompanyConfig.class);
+            if (config != null) {
+                config.setId(doc.getId());
+                list.add(config);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (employeesListener != null) employeesListener.remove();
+        if (locationsListener != null) locationsListener.remove();
+        employeeUpdates.cancel();
+        locationUpdates.cancel();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+}
@@ -16,17 +16,20 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.EventListener;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FirebaseFirestoreException;
-import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.WriteBatch;
 import com.inout.app.databinding.FragmentAdminEmployeesBinding;
 import com.inout.app.models.User;
 import com.inout.app.models.CompanyConfig;
+import com.inout.app.viewmodels.AdminDirectoryViewModel;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,15 +37,18 @@ import java.util.List;
 /**
  * Updated Fragment to handle Multi-Selection, Bulk Deletion, 
  * and Individual/Bulk Location Assignment.
+ * Employees and locations come from the activity-scoped AdminDirectoryViewModel.
  */
 public class AdminEmployeesFragment extends Fragment implements EmployeeListAdapter.OnEmployeeActionListener {
 
     private static final String TAG = "AdminEmployeesFrag";
+    private static final int PRELOAD_ROWS = 10;
     private FragmentAdminEmployeesBinding binding;
     private FirebaseFirestore db;
+    private AdminDirectoryViewModel directory;
     private EmployeeListAdapter adapter;
     private List<User> employeeList;
-    private List<CompanyConfig> locationList; 
+    private List<CompanyConfig> locationList = new ArrayList<>();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -56,60 +62,36 @@ public class AdminEmployeesFragment extends Fragment implements EmployeeListAdap
 
         db = FirebaseFirestore.getInstance();
         employeeList = new ArrayList<>();
-        locationList = new ArrayList<>();
-        
+        directory = new ViewModelProvider(requireActivity()).get(AdminDirectoryViewModel.class);
+
         setupRecyclerView();
-        listenForEmployees();
-        fetchLocations(); 
+        observeEmployees();
+        directory.getLocations().observe(getViewLifecycleOwner(), locations -> locationList = locations);
     }
 
     private void setupRecyclerView() {
         binding.recyclerViewEmployees.setLayoutManager(new LinearLayoutManager(getContext()));
         // Initialize adapter with empty list and this fragment as the listener
-        adapter = new EmployeeListAdapter(getContext(), employeeList, this);
+        RequestManager glide = Glide.with(this);
+        adapter = new EmployeeListAdapter(requireContext(), glide, employeeList, this);
         binding.recyclerViewEmployees.setAdapter(adapter);
-    }
 
-    private void fetchLocations() {
-        db.collection("locations").addSnapshotListener((value, error) -> {
-            if (error != null) return;
-            if (value != null) {
-                locationList.clear();
-                for (DocumentSnapshot doc : value) {
-                    CompanyConfig loc = doc.toObject(CompanyConfig.class);
-                    if (loc != null) {
-                        loc.setId(doc.getId());
-                        locationList.add(loc);
-                    }
-                }
-            }
-        });
+        // Fetch photos of the next rows while scrolling
+        int photoSize = adapter.getPhotoSizePx();
+        binding.recyclerViewEmployees.addOnScrollListener(new RecyclerViewPreloader<>(
+                glide, adapter, new FixedPreloadSizeProvider<>(photoSize, photoSize), PRELOAD_ROWS));
     }
 
-    private void listenForEmployees() {
-        binding.progressBar.setVisibility(View.VISIBLE);
-        db.collection("users")
-                .whereEqualTo("role", "employee")
-                .addSnapshotListener(new EventListener<QuerySnapshot>() {
-                    @Override
-                    public void onEvent(@Nullable QuerySnapshot value, @Nullable FirebaseFirestoreException error) {
-                        binding.progressBar.setVisibility(View.GONE);
-                        if (error != null) return;
-
-                        if (value != null) {
-                            employeeList.clear();
-                            for (DocumentSnapshot doc : value) {
-                                User user = doc.toObject(User.class);
-                                if (user != null) {
-                                    user.setUid(doc.getId());
-                                    employeeList.add(user);
-                                }
-                            }
-                            adapter.notifyDataSetChanged();
-                            binding.tvEmptyView.setVisibility(employeeList.isEmpty() ? View.VISIBLE : View.GONE);
-                        }
-                    }
-                });
+    private void observeEmployees() {
+        // Spinner only until the first snapshot; afterwards the cached list renders at once
+        binding.progressBar.setVisibility(directory.getEmployees().getValue() == null ? View.VISIBLE : View.GONE);
+        directory.getEmployees().observe(getViewLifecycleOwner(), users -> {
+            binding.progressBar.setVisibility(View.GONE);
+            employeeList.clear();
+            employeeList.addAll(users);
+            adapter.onListChanged();
+            binding.tvEmptyView.setVisibility(employeeList.isEmpty() ? View.VISIBLE : View.GONE);
+        });
     }
 
     /**
@@ -162,10 +144,16 @@ public class AdminEmployeesFragment extends Fragment implements EmployeeListAdap
             int selectedIndex = spinner.getSelectedItemPosition();
             if (!empId.isEmpty() && selectedIndex >= 0) {
                 String locId = locationList.get(selectedIndex).getId();
+                // Primary site is replaced (the old one is no longer valid), other sites are kept
+                List<String> siteIds = user.getAllAssignedLocationIds();
+                if (user.getAssignedLocationId() != null) siteIds.remove(user.getAssignedLocationId());
+                siteIds.remove(locId);
+                siteIds.add(0, locId);
                 db.collection("users").document(user.getUid())
                         .update("approved", true, 
                                 "employeeId", empId, 
-                                "assignedLocationId", locId)
+                                "assignedLocationId", locId,
+                                "assignedLocationIds", siteIds)
                         .addOnSuccessListener(aVoid -> Toast.makeText(getContext(), "Approved and Assigned!", Toast.LENGTH_SHORT).show());
             } else {
                 Toast.makeText(getContext(), "ID and Location required!", Toast.LENGTH_SHORT).show();
@@ -194,7 +182,7 @@ public class AdminEmployeesFragment extends Fragment implements EmployeeListAdap
      */
     @Override
     public void onBulkActionRequested(List<User> selectedUsers) {
-        String[] options = {"Remove Selected Employees", "Add location from saved list"};
+        String[] options = {"Remove Selected Employees", "Add location from saved list", "Remove location from selected"};
         
         AlertDialog.Builder builder = new AlertDialog.Builder(requireContext());
         builder.setTitle("Bulk Actions (" + selectedUsers.size() + " selected)");
@@ -203,6 +191,8 @@ public class AdminEmployeesFragment extends Fragment implements EmployeeListAdap
                 showBulkDeleteConfirmation(selectedUsers);
             } else if (which == 1) {
                 showBulkLocationAssignment(selectedUsers);
+            } else if (which == 2) {
+                showBulkLocationRemoval(selectedUsers);
             }
         });
         builder.show();
@@ -264,11 +254,17 @@ public class AdminEmployeesFragment extends Fragment implements EmployeeListAdap
         builder.show();
     }
 
+    /**
+     * Adds the site to every selected employee. It only becomes the primary site of employees
+     * who have none yet; existing primaries are changed from the individual dialog.
+     */
     private void performBulkAssignment(List<User> selectedUsers, String locId) {
         WriteBatch batch = db.batch();
         for (User user : selectedUsers) {
+            String primary = user.getAssignedLocationId();
             batch.update(db.collection("users").document(user.getUid()), 
-                    "assignedLocationId", locId,
+                    "assignedLocationId", primary != null && !primary.isEmpty() ? primary : locId,
+                    "assignedLocationIds", FieldValue.arrayUnion(locId),
                     "approved", true);
         }
         
@@ -280,6 +276,51 @@ public class AdminEmployeesFragment extends Fragment implements EmployeeListAdap
         });
     }
 
+    private void showBulkLocationRemoval(List<User> selectedUsers) {
+        if (locationList.isEmpty()) {
+            Toast.makeText(getContext(), "No Office Locations saved.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        String[] names = new String[locationList.size()];
+        for (int i = 0; i < locationList.size(); i++) names[i] = locationList.get(i).getName();
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Remove Location from " + selectedUsers.size() + " Users")
+                .setItems(names, (dialog, which) -> performBulkRemoval(selectedUsers, locationList.get(which).getId()))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    /**
+     * Takes the site away from every selected employee. If it was their primary site, the next
+     * remaining site becomes the primary; employees left without sites cannot check in until
+     * they are assigned one again.
+     */
+    private void performBulkRemoval(List<User> selectedUsers, String locId) {
+        WriteBatch batch = db.batch();
+        int changed = 0;
+        for (User user : selectedUsers) {
+            List<String> siteIds = user.getAllAssignedLocationIds();
+            if (!siteIds.remove(locId)) continue;
+            batch.update(db.collection("users").document(user.getUid()),
+                    "assignedLocationId", siteIds.isEmpty() ? FieldValue.delete() : siteIds.get(0),
+                    "assignedLocationIds", siteIds);
+            changed++;
+        }
+        if (changed == 0) {
+            Toast.makeText(getContext(), "None of the selected employees has this location.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        batch.commit().addOnSuccessListener(aVoid -> {
+            Toast.makeText(getContext(), "Location removed from selection.", Toast.LENGTH_SHORT).show();
+            adapter.clearSelection();
+        }).addOnFailureListener(e -> {
+            Toast.makeText(getContext(), "Bulk update failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        });
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
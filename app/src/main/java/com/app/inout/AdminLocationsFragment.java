@@ -15,17 +15,19 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.EventListener;
+import com.google.android.gms.location.Priority;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FirebaseFirestoreException;
-import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.GeoPoint;
 import com.google.firebase.firestore.WriteBatch;
 import com.inout.app.databinding.FragmentAdminLocationsBinding;
 import com.inout.app.models.CompanyConfig;
 import com.inout.app.utils.LocationHelper;
+import com.inout.app.utils.LocationSessionManager;
+import com.inout.app.utils.SitePolygon;
+import com.inout.app.viewmodels.AdminDirectoryViewModel;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -34,11 +36,16 @@ import java.util.Locale;
 
 /**
  * Updated Fragment for Office Locations.
- * Features: Remote Search, GPS Capture, and Interactive Selection/Deletion.
+ * Features: Remote Search, GPS Capture, Boundary Walk (polygon sites), and Interactive Selection/Deletion.
+ * The saved list comes from the activity-scoped AdminDirectoryViewModel; captured coordinates
+ * survive rotation through the saved instance state.
  */
 public class AdminLocationsFragment extends Fragment implements LocationAdapter.OnLocationActionListener {
 
     private static final String TAG = "AdminLocationsFrag";
+    private static final String STATE_LAT = "captured_lat";
+    private static final String STATE_LNG = "captured_lng";
+    private static final String STATE_BOUNDARY = "captured_boundary";
     private FragmentAdminLocationsBinding binding;
     private FirebaseFirestore db;
     private LocationHelper locationHelper;
@@ -49,6 +56,14 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
     private double capturedLat = 0;
     private double capturedLng = 0;
 
+    // Boundary walk: the admin walks around the site and good fixes become polygon vertices
+    private static final long WALK_INTERVAL_MS = 2000;
+    private static final float WALK_MAX_ACCURACY_METERS = 15f;
+    private static final float WALK_MIN_SPACING_METERS = 5f;
+    private LocationSessionManager.Subscription walkSubscription;
+    private final List<GeoPoint> walkedVertices = new ArrayList<>();
+    private List<GeoPoint> capturedBoundary;
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         binding = FragmentAdminLocationsBinding.inflate(inflater, container, false);
@@ -62,10 +77,50 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
         db = FirebaseFirestore.getInstance();
         locationHelper = new LocationHelper(requireContext());
         savedLocations = new ArrayList<>();
+        restoreCapture(savedInstanceState);
 
         setupRecyclerView();
         setupClickListeners();
-        listenForLocations();
+        new ViewModelProvider(requireActivity()).get(AdminDirectoryViewModel.class)
+                .getLocations().observe(getViewLifecycleOwner(), locations -> {
+                    savedLocations.clear();
+                    savedLocations.addAll(locations);
+                    adapter.onListChanged();
+                });
+    }
+
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putDouble(STATE_LAT, capturedLat);
+        outState.putDouble(STATE_LNG, capturedLng);
+        if (capturedBoundary != null) {
+            // Flattened as lat, lng pairs
+            double[] flat = new double[capturedBoundary.size() * 2];
+            for (int i = 0; i < capturedBoundary.size(); i++) {
+                flat[i * 2] = capturedBoundary.get(i).getLatitude();
+                flat[i * 2 + 1] = capturedBoundary.get(i).getLongitude();
+            }
+            outState.putDoubleArray(STATE_BOUNDARY, flat);
+        }
+    }
+
+    private void restoreCapture(@Nullable Bundle state) {
+        if (state == null) return;
+        capturedLat = state.getDouble(STATE_LAT);
+        capturedLng = state.getDouble(STATE_LNG);
+        double[] flat = state.getDoubleArray(STATE_BOUNDARY);
+        if (flat != null) {
+            capturedBoundary = new ArrayList<>();
+            for (int i = 0; i + 1 < flat.length; i += 2) {
+                capturedBoundary.add(new GeoPoint(flat[i], flat[i + 1]));
+            }
+        }
+        if (capturedLat != 0 || capturedLng != 0) {
+            binding.tvCapturedCoords.setText(String.format(Locale.US, "Captured:\nLat: %.6f | Lng: %.6f", capturedLat, capturedLng));
+            binding.tvCapturedCoords.setVisibility(View.VISIBLE);
+        }
+        updateWalkButton();
     }
 
     private void setupRecyclerView() {
@@ -88,6 +143,9 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
         // Capture current GPS logic
         binding.btnCaptureGps.setOnClickListener(v -> captureCurrentLocation());
 
+        // Polygon boundary capture (start/finish toggle)
+        binding.btnWalkBoundary.setOnClickListener(v -> toggleBoundaryWalk());
+
         // Save logic
         binding.btnSaveLocation.setOnClickListener(v -> saveLocationToFirestore());
     }
@@ -128,6 +186,7 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
         locationHelper.getCurrentLocation(new LocationHelper.LocationResultCallback() {
             @Override
             public void onLocationResult(Location location) {
+                if (binding == null) return;
                 binding.progressBar.setVisibility(View.GONE);
                 binding.btnCaptureGps.setEnabled(true);
 
@@ -141,6 +200,7 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
 
             @Override
             public void onError(String errorMsg) {
+                if (binding == null) return;
                 binding.progressBar.setVisibility(View.GONE);
                 binding.btnCaptureGps.setEnabled(true);
                 Toast.makeText(getContext(), "GPS Error: " + errorMsg, Toast.LENGTH_LONG).show();
@@ -148,6 +208,66 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
         });
     }
 
+    private void toggleBoundaryWalk() {
+        LocationSessionManager sessionManager = LocationSessionManager.getInstance(requireContext());
+        if (walkSubscription == null) {
+            if (!sessionManager.hasPermissions()) {
+                Toast.makeText(getContext(), "Location permission required.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            walkedVertices.clear();
+            capturedBoundary = null;
+            walkSubscription = sessionManager.subscribe(Priority.PRIORITY_HIGH_ACCURACY, WALK_INTERVAL_MS, this::onBoundaryFix);
+            updateWalkButton();
+            Toast.makeText(getContext(), "Walk along the site edge, then tap Finish.", Toast.LENGTH_LONG).show();
+        } else {
+            stopBoundaryWalk();
+            if (walkedVertices.size() < 3) {
+                Toast.makeText(getContext(), "Boundary needs at least 3 points. Try again.", Toast.LENGTH_LONG).show();
+                updateWalkButton();
+                return;
+            }
+            capturedBoundary = new ArrayList<>(walkedVertices);
+            SitePolygon polygon = new SitePolygon(capturedBoundary);
+            capturedLat = polygon.getCentroidLat();
+            capturedLng = polygon.getCentroidLng();
+            binding.tvCapturedCoords.setText(String.format(Locale.US, "Boundary: %d points (~%dm across)\nCenter Lat: %.6f | Lng: %.6f",
+                    capturedBoundary.size(), Math.round(polygon.getCircumRadiusMeters() * 2), capturedLat, capturedLng));
+            binding.tvCapturedCoords.setVisibility(View.VISIBLE);
+            updateWalkButton();
+        }
+    }
+
+    private void onBoundaryFix(Location location) {
+        if (binding == null || !location.hasAccuracy() || location.getAccuracy() > WALK_MAX_ACCURACY_METERS) return;
+
+        if (!walkedVertices.isEmpty()) {
+            GeoPoint last = walkedVertices.get(walkedVertices.size() - 1);
+            float moved = LocationHelper.calculateDistance(last.getLatitude(), last.getLongitude(),
+                    location.getLatitude(), location.getLongitude());
+            if (moved < WALK_MIN_SPACING_METERS) return;
+        }
+        walkedVertices.add(new GeoPoint(location.getLatitude(), location.getLongitude()));
+        updateWalkButton();
+    }
+
+    private void stopBoundaryWalk() {
+        if (walkSubscription == null) return;
+        LocationSessionManager.getInstance(requireContext()).unsubscribe(walkSubscription);
+        walkSubscription = null;
+    }
+
+    private void updateWalkButton() {
+        if (binding == null) return;
+        if (walkSubscription != null) {
+            binding.btnWalkBoundary.setText("Finish Boundary (" + walkedVertices.size() + " points)");
+        } else if (capturedBoundary != null) {
+            binding.btnWalkBoundary.setText("Boundary Captured (" + capturedBoundary.size() + " points)");
+        } else {
+            binding.btnWalkBoundary.setText("Walk Site Boundary (optional)");
+        }
+    }
+
     private void saveLocationToFirestore() {
         String locName = binding.etLocationName.getText().toString().trim();
         if (TextUtils.isEmpty(locName)) {
@@ -161,6 +281,11 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
 
         binding.progressBar.setVisibility(View.VISIBLE);
         CompanyConfig config = new CompanyConfig(locName, capturedLat, capturedLng);
+        if (capturedBoundary != null) {
+            // Radius becomes the circle around the outline (used by the site index and geofences)
+            config.setBoundary(capturedBoundary);
+            config.setRadius(config.getPolygon().getCircumRadiusMeters());
+        }
 
         db.collection("locations")
                 .add(config)
@@ -177,24 +302,9 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
         binding.tvCapturedCoords.setText("");
         binding.tvCapturedCoords.setVisibility(View.GONE);
         capturedLat = 0; capturedLng = 0;
-    }
-
-    private void listenForLocations() {
-        db.collection("locations")
-                .addSnapshotListener((value, error) -> {
-                    if (error != null) return;
-                    if (value != null) {
-                        savedLocations.clear();
-                        for (DocumentSnapshot doc : value) {
-                            CompanyConfig config = doc.toObject(CompanyConfig.class);
-                            if (config != null) {
-                                config.setId(doc.getId());
-                                savedLocations.add(config);
-                            }
-                        }
-                        adapter.notifyDataSetChanged();
-                    }
-                });
+        capturedBoundary = null;
+        walkedVertices.clear();
+        updateWalkButton();
     }
 
     /**
@@ -233,6 +343,8 @@ public class AdminLocationsFragment extends Fragment implements LocationAdapter.
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        locationHelper.cancelPendingRequest();
+        stopBoundaryWalk();
         binding = null;
     }
 }
\ No newline at end of file
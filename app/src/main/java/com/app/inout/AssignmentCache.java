@@ -0,0 +1,196 @@
+package com.inout.app.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.firebase.firestore.GeoPoint;
+import com.inout.app.models.CompanyConfig;
+import com.inout.app.models.User;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Local copy of the signed-in employee's resolved office assignment, kept in the
+ * encrypted store so the check-in screen is usable before any network round trip.
+ * 1. Written after every successful fetch of the assigned 'locations' documents.
+ * 2. Read once when the screen opens.
+ * 3. Each entry carries a version stamp (a hash of the site data), so a background
+ *    revalidation can tell whether anything actually changed.
+ */
+public class AssignmentCache {
+
+    private static final String TAG = "AssignmentCache";
+
+    // Bump when the JSON layout changes; older entries are then ignored
+    private static final int FORMAT_VERSION = 1;
+
+    private final EncryptionHelper encryptionHelper;
+
+    public AssignmentCache(Context context) {
+        this.encryptionHelper = EncryptionHelper.getInstance(context);
+    }
+
+    /**
+     * A cached assignment: who it belongs to and the sites it resolved to.
+     */
+    public static class Entry {
+        private final String uid;
+        private final String employeeId;
+        private final String name;
+        private final List<String> siteIds;
+        private final List<CompanyConfig> sites;
+        private final String versionStamp;
+        private final long savedAt;
+
+        Entry(String uid, String employeeId, String name, List<String> siteIds,
+              List<CompanyConfig> sites, String versionStamp, long savedAt) {
+            this.uid = uid;
+            this.employeeId = employeeId;
+            this.name = name;
+            this.siteIds = Collections.unmodifiableList(siteIds);
+            this.sites = Collections.unmodifiableList(sites);
+            this.versionStamp = versionStamp;
+            this.savedAt = savedAt;
+        }
+
+        public String getUid() { return uid; }
+        public String getEmployeeId() { return employeeId; }
+        public String getName() { return name; }
+        public List<String> getSiteIds() { return siteIds; }
+        public List<CompanyConfig> getSites() { return sites; }
+        public String getVersionStamp() { return versionStamp; }
+        public long getSavedAt() { return savedAt; }
+
+        /**
+         * Minimal profile rebuilt from the cache, enough to identify attendance records.
+         */
+        public User toUser() {
+            User user = new User();
+            user.setUid(uid);
+            user.setEmployeeId(employeeId);
+            user.setName(name);
+            if (!siteIds.isEmpty()) user.setAssignedLocationId(siteIds.get(0));
+            user.setAssignedLocationIds(new ArrayList<>(siteIds));
+            return user;
+        }
+    }
+
+    /**
+     * @return The cached assignment for this user, or null if none, another user's, or an old format.
+     */
+    public Entry load(String uid) {
+        String json = encryptionHelper.getAssignmentCache();
+        if (json == null || uid == null) return null;
+        try {
+            JSONObject root = new JSONObject(json);
+            if (root.optInt("format") != FORMAT_VERSION || !uid.equals(root.optString("uid"))) return null;
+
+            List<String> siteIds = new ArrayList<>();
+            JSONArray ids = root.getJSONArray("siteIds");
+            for (int i = 0; i < ids.length(); i++) siteIds.add(ids.getString(i));
+
+            List<CompanyConfig> sites = new ArrayList<>();
+            JSONArray siteArray = root.getJSONArray("sites");
+            for (int i = 0; i < siteArray.length(); i++) sites.add(readSite(siteArray.getJSONObject(i)));
+            if (sites.isEmpty()) return null;
+
+            return new Entry(uid,
+                    root.isNull("employeeId") ? null : root.optString("employeeId"),
+                    root.isNull("name") ? null : root.optString("name"),
+                    siteIds, sites, root.getString("stamp"), root.optLong("savedAt"));
+        } catch (JSONException e) {
+            Log.e(TAG, "Discarding unreadable assignment cache", e);
+            clear();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the assignment just resolved from Firestore.
+     */
+    public void save(User user, List<String> siteIds, List<CompanyConfig> sites) {
+        try {
+            JSONObject root = new JSONObject();
+            root.put("format", FORMAT_VERSION);
+            root.put("uid", user.getUid());
+            root.put("employeeId", user.getEmployeeId() != null ? user.getEmployeeId() : JSONObject.NULL);
+            root.put("name", user.getName() != null ? user.getName() : JSONObject.NULL);
+            root.put("siteIds", new JSONArray(siteIds));
+            JSONArray siteArray = new JSONArray();
+            for (CompanyConfig site : sites) siteArray.put(writeSite(site));
+            root.put("sites", siteArray);
+            root.put("stamp", versionStamp(sites));
+            root.put("savedAt", System.currentTimeMillis());
+            encryptionHelper.saveAssignmentCache(root.toString());
+        } catch (JSONException e) {
+            Log.e(TAG, "Failed to write assignment cache", e);
+        }
+    }
+
+    public void clear() {
+        encryptionHelper.clearAssignmentCache();
+    }
+
+    /**
+     * Content hash of everything that affects a check-in decision (ids, names, geometry).
+     */
+    public static String versionStamp(List<CompanyConfig> sites) {
+        long hash = 1125899906842597L;
+        for (CompanyConfig site : sites) {
+            hash = 31 * hash + String.valueOf(site.getId()).hashCode();
+            hash = 31 * hash + String.valueOf(site.getName()).hashCode();
+            hash = 31 * hash + Double.doubleToLongBits(site.getLatitude());
+            hash = 31 * hash + Double.doubleToLongBits(site.getLongitude());
+            hash = 31 * hash + Float.floatToIntBits(site.getRadius());
+            if (site.hasBoundary()) {
+                for (GeoPoint p : site.getBoundary()) {
+                    hash = 31 * hash + Double.doubleToLongBits(p.getLatitude());
+                    hash = 31 * hash + Double.doubleToLongBits(p.getLongitude());
+                }
+            }
+        }
+        return FORMAT_VERSION + ":" + Long.toHexString(hash);
+    }
+
+    private static JSONObject writeSite(CompanyConfig site) throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("id", site.getId());
+        obj.put("name", site.getName() != null ? site.getName() : JSONObject.NULL);
+        obj.put("lat", site.getLatitude());
+        obj.put("lng", site.getLongitude());
+        obj.put("radius", (double) site.getRadius());
+        if (site.hasBoundary()) {
+            JSONArray boundary = new JSONArray();
+            for (GeoPoint p : site.getBoundary()) {
+                boundary.put(new JSONArray().put(p.getLatitude()).put(p.getLongitude()));
+            }
+            obj.put("boundary", boundary);
+        }
+        return obj;
+    }
+
+    private static CompanyConfig readSite(JSONObject obj) throws JSONException {
+        CompanyConfig site = new CompanyConfig(
+                obj.isNull("name") ? null : obj.optString("name"),
+                obj.getDouble("lat"),
+                obj.getDouble("lng"));
+        site.setId(obj.getString("id"));
+        site.setRadius((float) obj.getDouble("radius"));
+        JSONArray boundary = obj.optJSONArray("boundary");
+        if (boundary != null) {
+            List<GeoPoint> points = new ArrayList<>(boundary.length());
+            for (int i = 0; i < boundary.length(); i++) {
+                JSONArray p = boundary.getJSONArray(i);
+                points.add(new GeoPoint(p.getDouble(0), p.getDouble(1)));
+            }
+            site.setBoundary(points);
+        }
+        return site;
+    }
+}
@@ -0,0 +1,145 @@
+package com.inout.app.utils;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.inout.app.models.AttendanceRecord;
+import com.inout.app.models.MonthlyAttendance;
+import com.inout.app.models.PunchEvent;
+import com.inout.app.models.TodayStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the append-only 'punches' log into the read models:
+ * 1. The daily record 'attendance/{employeeId_date}' (first check-in, last check-out,
+ *    number of sessions and total worked time), so the daily view still reads one document.
+ * 2. The day's entry in 'attendance_monthly/{employeeId_yyyy-MM}'.
+ * 3. For today, the 'todayStatus' snapshot on 'users/{uid}', so a status that was never
+ *    written (or written from fewer punches) is corrected by the server's punches.
+ * All are recomputed from all punches of the day, so running it again is harmless.
+ */
+public final class AttendanceMaterializer {
+
+    private static final String TAG = "AttendanceMaterializer";
+
+    private AttendanceMaterializer() {
+    }
+
+    /**
+     * Pure fold of punches (any order) on top of an optional starting record.
+     */
+    public static AttendanceRecord fold(AttendanceRecord base, List<PunchEvent> punches) {
+        List<PunchEvent> sorted = new ArrayList<>(punches);
+        Collections.sort(sorted, (a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+        AttendanceRecord record = base;
+        for (PunchEvent punch : sorted) record = punch.applyTo(record);
+        return record;
+    }
+
+    /**
+     * Rebuilds the daily record and monthly entry of one employee and day from the server.
+     *
+     * @param uid    Owner of the profile whose todayStatus is rewritten when dateId is today; null to leave it.
+     * @param radius Radius stored with the status (the site's radius at punch time).
+     */
+    public static Task<Void> materializeDay(FirebaseFirestore db, String employeeId, String dateId,
+                                            String uid, float radius) {
+        String recordId = employeeId + "_" + dateId;
+        DocumentReference recordRef = db.collection("attendance").document(recordId);
+
+        Task<QuerySnapshot> punchesTask = db.collection("punches")
+                .whereEqualTo("employeeId", employeeId)
+                .whereEqualTo("dateId", dateId)
+                .get();
+        Task<DocumentSnapshot> recordTask = recordRef.get();
+
+        return Tasks.whenAllSuccess(punchesTask, recordTask).continueWithTask(task -> {
+            if (!task.isSuccessful()) throw task.getException();
+
+            List<PunchEvent> punches = new ArrayList<>();
+            for (QueryDocumentSnapshot doc : punchesTask.getResult()) {
+                punches.add(PunchEvent.fromMap(doc.getData()));
+            }
+            if (punches.isEmpty()) return Tasks.forResult(null);
+
+            WriteBatch batch = db.batch();
+            for (PunchEvent legacy : legacyPunches(recordTask.getResult(), employeeId, dateId)) {
+                punches.add(legacy);
+                batch.set(db.collection("punches").document(legacy.getEventId()), legacy.toMap());
+            }
+            AttendanceRecord record = fold(null, punches);
+
+            Map<String, Object> monthly = new HashMap<>();
+            Map<String, Object> days = new HashMap<>();
+            days.put(dateId.substring(8), record.getTotalMinutes());
+            monthly.put("employeeId", employeeId);
+            monthly.put("month", TimeUtils.getMonthId(dateId));
+            monthly.put("dayMinutes", days);
+
+            batch.set(recordRef, record);
+            if (uid != null && dateId.equals(TimeUtils.getCurrentDateId())) {
+                batch.update(db.collection("users").document(uid), "todayStatus",
+                        TodayStatus.fromRecord(record, radius, System.currentTimeMillis()).toMap());
+            }
+            batch.set(db.collection("attendance_monthly")
+                            .document(MonthlyAttendance.documentId(employeeId, TimeUtils.getMonthId(dateId))),
+                    monthly, SetOptions.merge());
+            Log.d(TAG, "Materialized " + recordId + ": " + punches.size() + " punch(es)");
+            return batch.commit();
+        });
+    }
+
+    /**
+     * A record written before punches existed (check-in/out only stored on the daily document)
+     * is converted to punches with deterministic IDs, so its times survive every later fold.
+     */
+    private static List<PunchEvent> legacyPunches(DocumentSnapshot snapshot, String employeeId, String dateId) {
+        List<PunchEvent> punches = new ArrayList<>();
+        if (snapshot == null || !snapshot.exists()) return punches;
+        AttendanceRecord existing = snapshot.toObject(AttendanceRecord.class);
+        if (existing == null || existing.getSessions() > 0 || existing.getCheckInTime() == null) return punches;
+
+        existing.setEmployeeId(employeeId);
+        existing.setDate(dateId);
+        punches.add(legacyPunch(existing, PunchEvent.TYPE_IN, existing.getCheckInTime(),
+                existing.getTimestamp(), existing.getCheckInLat(), existing.getCheckInLng()));
+        if (existing.getCheckOutTime() != null && !existing.getCheckOutTime().isEmpty()) {
+            long minutes = Math.max(0, TimeUtils.durationMinutes(existing.getCheckInTime(), existing.getCheckOutTime()));
+            punches.add(legacyPunch(existing, PunchEvent.TYPE_OUT, existing.getCheckOutTime(),
+                    existing.getTimestamp() + minutes * 60000, existing.getCheckOutLat(), existing.getCheckOutLng()));
+        }
+        return punches;
+    }
+
+    private static PunchEvent legacyPunch(AttendanceRecord record, String type, String time,
+                                          long timestamp, double lat, double lng) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("eventId", "legacy_" + type + "_" + record.getEmployeeId() + "_" + record.getDate());
+        map.put("type", type);
+        map.put("employeeId", record.getEmployeeId());
+        map.put("employeeName", record.getEmployeeName());
+        map.put("dateId", record.getDate());
+        map.put("time", time);
+        map.put("timestamp", timestamp);
+        map.put("lat", lat);
+        map.put("lng", lng);
+        map.put("distanceMeters", (double) record.getDistanceMeters());
+        map.put("locationName", record.getLocationName());
+        map.put("fingerprintVerified", record.isFingerprintVerified());
+        map.put("gpsVerified", record.isGpsVerified());
+        return PunchEvent.fromMap(map);
+    }
+}
@@ -0,0 +1,138 @@
+package com.inout.app.models;
+
+import com.inout.app.utils.TimeUtils;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable employees × days status grid of one month, for the company attendance matrix.
+ * Statuses are stored in one byte array (row-major), so 2,000 employees × 31 days is ~62 KB
+ * and reading a cell allocates nothing.
+ */
+public final class AttendanceMatrix {
+
+    public static final byte STATUS_NONE = 0;      // Day has not happened yet
+    public static final byte STATUS_ABSENT = 1;
+    public static final byte STATUS_PARTIAL = 2;   // Checked in, no completed session (or on duty now)
+    public static final byte STATUS_PRESENT = 3;   // Worked time recorded
+
+    private static final String[] WEEKDAY_INITIALS = {"S", "M", "T", "W", "T", "F", "S"};
+
+    private final String monthId;
+    private final List<User> employees;
+    private final int days;
+    private final byte[] statuses;
+    private final String[] dayLabels;
+    private final String[] weekdayLabels;
+    private final boolean[] weekend;
+
+    private AttendanceMatrix(String monthId, List<User> employees, int days, byte[] statuses,
+                             String[] dayLabels, String[] weekdayLabels, boolean[] weekend) {
+        this.monthId = monthId;
+        this.employees = employees;
+        this.days = days;
+        this.statuses = statuses;
+        this.dayLabels = dayLabels;
+        this.weekdayLabels = weekdayLabels;
+        this.weekend = weekend;
+    }
+
+    /**
+     * Builds the grid from the monthly read models (keyed by employee ID).
+     * Today's cell also uses the live status on the user document, so an employee who is
+     * currently checked in shows as on duty before any session is closed.
+     * Safe to call off the main thread.
+     */
+    public static AttendanceMatrix build(String monthId, List<User> employees,
+                                         Map<String, MonthlyAttendance> monthly) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(TimeUtils.getMonthStartMillis(monthId, false));
+        int days = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+
+        String[] dayLabels = new String[days];
+        String[] weekdayLabels = new String[days];
+        boolean[] weekend = new boolean[days];
+        for (int day = 0; day < days; day++) {
+            int weekday = cal.get(Calendar.DAY_OF_WEEK);
+            dayLabels[day] = String.valueOf(day + 1);
+            weekdayLabels[day] = WEEKDAY_INITIALS[weekday - 1];
+            weekend[day] = weekday == Calendar.SATURDAY || weekday == Calendar.SUNDAY;
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        // Days up to and including today have a status; later days stay STATUS_NONE
+        String todayId = TimeUtils.getCurrentDateId();
+        String currentMonth = TimeUtils.getMonthId(todayId);
+        int elapsedDays = monthId.compareTo(currentMonth) < 0 ? days
+                : monthId.equals(currentMonth) ? Integer.parseInt(todayId.substring(8)) : 0;
+
+        byte[] statuses = new byte[employees.size() * days];
+        for (int row = 0; row < employees.size(); row++) {
+            User user = employees.get(row);
+            MonthlyAttendance month = user.getEmployeeId() != null ? monthly.get(user.getEmployeeId()) : null;
+            Map<String, Long> dayMinutes = month != null ? month.getDayMinutes() : Collections.emptyMap();
+            int offset = row * days;
+            for (int day = 0; day < elapsedDays; day++) {
+                Long minutes = dayMinutes.get(twoDigits(day + 1));
+                if (minutes == null) {
+                    statuses[offset + day] = STATUS_ABSENT;
+                } else {
+                    statuses[offset + day] = minutes > 0 ? STATUS_PRESENT : STATUS_PARTIAL;
+                }
+            }
+
+            TodayStatus today = user.getTodayStatus();
+            if (monthId.equals(currentMonth) && today != null && today.isForDate(todayId)) {
+                int cell = offset + elapsedDays - 1;
+                if (today.isCheckedIn() && statuses[cell] != STATUS_PRESENT) {
+                    statuses[cell] = STATUS_PARTIAL;
+                } else if (today.getTotalMinutes() > 0) {
+                    statuses[cell] = STATUS_PRESENT;
+                }
+            }
+        }
+        return new AttendanceMatrix(monthId, employees, days, statuses, dayLabels, weekdayLabels, weekend);
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+    public String getMonthId() {
+        return monthId;
+    }
+
+    public int getRowCount() {
+        return employees.size();
+    }
+
+    public int getDayCount() {
+        return days;
+    }
+
+    public User getEmployee(int row) {
+        return employees.get(row);
+    }
+
+    public byte getStatus(int row, int day) {
+        return statuses[row * days + day];
+    }
+
+    /**
+     * @return "1".."31", for the header.
+     */
+    public String getDayLabel(int day) {
+        return dayLabels[day];
+    }
+
+    public String getWeekdayLabel(int day) {
+        return weekdayLabels[day];
+    }
+
+    public boolean isWeekend(int day) {
+        return weekend[day];
+    }
+}
@@ -0,0 +1,92 @@
+package com.inout.app;
+
+import android.app.Dialog;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.inout.app.databinding.DialogAttendanceMatrixBinding;
+import com.inout.app.utils.TimeUtils;
+import com.inout.app.viewmodels.AdminDirectoryViewModel;
+import com.inout.app.viewmodels.AttendanceMatrixViewModel;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+/**
+ * Full-screen pop-up with every approved employee against every day of the current month.
+ * Employees come from the shared AdminDirectoryViewModel, the grid from AttendanceMatrixViewModel.
+ * Tapping a name opens that employee's AttendanceProfileDialog.
+ */
+public class AttendanceMatrixDialog extends DialogFragment {
+
+    private DialogAttendanceMatrixBinding binding;
+
+    public static AttendanceMatrixDialog newInstance() {
+        return new AttendanceMatrixDialog();
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        Dialog dialog = getDialog();
+        if (dialog != null) {
+            dialog.getWindow().setLayout(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+            dialog.getWindow().setBackgroundDrawable(new ColorDrawable(Color.WHITE));
+        }
+    }
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        binding = DialogAttendanceMatrixBinding.inflate(inflater, container, false);
+        return binding.getRoot();
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        AttendanceMatrixViewModel viewModel = new ViewModelProvider(this).get(AttendanceMatrixViewModel.class);
+        AdminDirectoryViewModel directory = new ViewModelProvider(requireActivity()).get(AdminDirectoryViewModel.class);
+
+        binding.tvMatrixMonth.setText(formatMonth(viewModel.getMonthId()));
+        binding.btnClose.setOnClickListener(v -> dismiss());
+        binding.matrixView.setOnEmployeeClickListener(user ->
+                AttendanceProfileDialog.newInstance(user).show(getChildFragmentManager(), "AttendanceProfileDialog"));
+
+        binding.progressBar.setVisibility(viewModel.getMatrix().getValue() == null ? View.VISIBLE : View.GONE);
+        directory.getApprovedEmployees().observe(getViewLifecycleOwner(), users -> {
+            if (users != null) viewModel.setEmployees(users);
+        });
+        viewModel.getMatrix().observe(getViewLifecycleOwner(), matrix -> {
+            if (matrix == null) return;
+            binding.progressBar.setVisibility(View.GONE);
+            binding.matrixView.setMatrix(matrix);
+            binding.tvMatrixTitle.setText("Company Attendance (" + matrix.getRowCount() + ")");
+        });
+        viewModel.getErrors().observe(getViewLifecycleOwner(), message -> {
+            if (message == null) return;
+            Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+            viewModel.onErrorShown();
+        });
+    }
+
+    private static String formatMonth(String monthId) {
+        return new SimpleDateFormat("MMMM yyyy", Locale.US).format(TimeUtils.getMonthStartMillis(monthId, false));
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+}
@@ -0,0 +1,306 @@
+package com.inout.app.views;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.OverScroller;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.inout.app.R;
+import com.inout.app.models.AttendanceMatrix;
+import com.inout.app.models.User;
+
+/**
+ * Company attendance grid: employees down, days across, with a frozen name column and a
+ * frozen date header. Scrolls in both directions and draws only the cells inside the
+ * viewport, so the cost of a frame does not depend on the number of employees.
+ * Status icons are rasterized once per size and drawn as bitmaps.
+ */
+public class AttendanceMatrixView extends View {
+
+    private static final float NAME_COLUMN_DP = 140f;
+    private static final float HEADER_HEIGHT_DP = 44f;
+    private static final float CELL_WIDTH_DP = 40f;
+    private static final float ROW_HEIGHT_DP = 40f;
+    private static final float ICON_SIZE_DP = 18f;
+    private static final float TEXT_PADDING_DP = 8f;
+
+    public interface OnEmployeeClickListener {
+        void onEmployeeClicked(User user);
+    }
+
+    private final int nameColumnWidth;
+    private final int headerHeight;
+    private final int cellWidth;
+    private final int rowHeight;
+    private final int iconSize;
+    private final int textPadding;
+
+    private final TextPaint namePaint;
+    private final TextPaint headerPaint;
+    private final TextPaint cornerPaint;
+    private final TextPaint weekdayPaint;
+    private final Paint gridPaint;
+    private final Paint weekendPaint;
+    private final Paint frozenPaint;
+    private final Paint iconPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // Indexed by AttendanceMatrix status; STATUS_NONE has no icon
+    private final Bitmap[] statusIcons = new Bitmap[4];
+
+    private final OverScroller scroller;
+    private final GestureDetector gestureDetector;
+
+    private AttendanceMatrix matrix;
+    // Names ellipsized to the column, computed the first time a row is drawn
+    private String[] ellipsizedNames;
+    private int offsetX;
+    private int offsetY;
+    private OnEmployeeClickListener listener;
+
+    public AttendanceMatrixView(Context context) {
+        this(context, null);
+    }
+
+    public AttendanceMatrixView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        nameColumnWidth = Math.round(NAME_COLUMN_DP * density);
+        headerHeight = Math.round(HEADER_HEIGHT_DP * density);
+        cellWidth = Math.round(CELL_WIDTH_DP * density);
+        rowHeight = Math.round(ROW_HEIGHT_DP * density);
+        iconSize = Math.round(ICON_SIZE_DP * density);
+        textPadding = Math.round(TEXT_PADDING_DP * density);
+
+        namePaint = newTextPaint(13f, Color.BLACK, false);
+        headerPaint = newTextPaint(13f, Color.BLACK, true);
+        cornerPaint = newTextPaint(13f, Color.BLACK, true);
+        headerPaint.setTextAlign(Paint.Align.CENTER);
+        weekdayPaint = newTextPaint(11f, ContextCompat.getColor(context, R.color.dark_gray), false);
+        weekdayPaint.setTextAlign(Paint.Align.CENTER);
+
+        gridPaint = new Paint();
+        gridPaint.setColor(ContextCompat.getColor(context, R.color.table_header_gray));
+        gridPaint.setStrokeWidth(Math.max(1f, density));
+        weekendPaint = new Paint();
+        weekendPaint.setColor(ContextCompat.getColor(context, R.color.light_gray));
+        frozenPaint = new Paint();
+        frozenPaint.setColor(ContextCompat.getColor(context, R.color.table_header_gray));
+
+        statusIcons[AttendanceMatrix.STATUS_ABSENT] = rasterize(R.drawable.ic_status_absent);
+        statusIcons[AttendanceMatrix.STATUS_PARTIAL] = rasterize(R.drawable.ic_status_partial);
+        statusIcons[AttendanceMatrix.STATUS_PRESENT] = rasterize(R.drawable.ic_status_present);
+
+        scroller = new OverScroller(context);
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                scroller.forceFinished(true);
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                scrollGridTo(offsetX + Math.round(distanceX), offsetY + Math.round(distanceY));
+                return true;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+                scroller.fling(offsetX, offsetY, -Math.round(velocityX), -Math.round(velocityY),
+                        0, maxOffsetX(), 0, maxOffsetY());
+                postInvalidateOnAnimation();
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                return onTap(e.getX(), e.getY());
+            }
+        });
+
+        setBackgroundColor(Color.WHITE);
+    }
+
+    private TextPaint newTextPaint(float sizeSp, int color, boolean bold) {
+        TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, sizeSp, getResources().getDisplayMetrics()));
+        paint.setColor(color);
+        if (bold) paint.setTypeface(Typeface.DEFAULT_BOLD);
+        return paint;
+    }
+
+    private Bitmap rasterize(int resId) {
+        Drawable drawable = ContextCompat.getDrawable(getContext(), resId);
+        Bitmap bitmap = Bitmap.createBitmap(iconSize, iconSize, Bitmap.Config.ARGB_8888);
+        if (drawable != null) {
+            drawable.setBounds(0, 0, iconSize, iconSize);
+            drawable.draw(new Canvas(bitmap));
+        }
+        return bitmap;
+    }
+
+    /**
+     * Shows a new grid, keeping the scroll position where it is still valid.
+     */
+    public void setMatrix(AttendanceMatrix matrix) {
+        this.matrix = matrix;
+        this.ellipsizedNames = matrix != null ? new String[matrix.getRowCount()] : null;
+        scrollGridTo(offsetX, offsetY);
+        setContentDescription(matrix != null
+                ? "Attendance of " + matrix.getRowCount() + " employees for " + matrix.getMonthId() : null);
+        invalidate();
+    }
+
+    public void setOnEmployeeClickListener(OnEmployeeClickListener listener) {
+        this.listener = listener;
+    }
+
+    private int maxOffsetX() {
+        if (matrix == null) return 0;
+        return Math.max(0, matrix.getDayCount() * cellWidth - (getWidth() - nameColumnWidth));
+    }
+
+    private int maxOffsetY() {
+        if (matrix == null) return 0;
+        return Math.max(0, matrix.getRowCount() * rowHeight - (getHeight() - headerHeight));
+    }
+
+    private void scrollGridTo(int x, int y) {
+        int clampedX = Math.max(0, Math.min(x, maxOffsetX()));
+        int clampedY = Math.max(0, Math.min(y, maxOffsetY()));
+        if (clampedX != offsetX || clampedY != offsetY) {
+            offsetX = clampedX;
+            offsetY = clampedY;
+            postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    public void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            scrollGridTo(scroller.getCurrX(), scroller.getCurrY());
+            if (!scroller.isFinished()) postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        scrollGridTo(offsetX, offsetY);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        // Keep parents from stealing a drag that is meant for the grid
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        return gestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    private boolean onTap(float x, float y) {
+        if (matrix == null || listener == null || x >= nameColumnWidth || y < headerHeight) return false;
+        int row = (int) ((y - headerHeight + offsetY) / rowHeight);
+        if (row >= matrix.getRowCount()) return false;
+        listener.onEmployeeClicked(matrix.getEmployee(row));
+        return true;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (matrix == null) return;
+
+        int width = getWidth();
+        int height = getHeight();
+        int rows = matrix.getRowCount();
+        int days = matrix.getDayCount();
+
+        // Visible window of the grid; nothing outside it is touched
+        int firstRow = offsetY / rowHeight;
+        int lastRow = Math.min(rows - 1, (offsetY + height - headerHeight) / rowHeight);
+        int firstDay = offsetX / cellWidth;
+        int lastDay = Math.min(days - 1, (offsetX + width - nameColumnWidth) / cellWidth);
+
+        // 1. Cells
+        canvas.save();
+        canvas.clipRect(nameColumnWidth, headerHeight, width, height);
+        int iconInsetX = (cellWidth - iconSize) / 2;
+        int iconInsetY = (rowHeight - iconSize) / 2;
+        for (int day = firstDay; day <= lastDay; day++) {
+            if (matrix.isWeekend(day)) {
+                float left = nameColumnWidth + day * cellWidth - offsetX;
+                canvas.drawRect(left, headerHeight, left + cellWidth, height, weekendPaint);
+            }
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            int top = headerHeight + row * rowHeight - offsetY;
+            for (int day = firstDay; day <= lastDay; day++) {
+                Bitmap icon = statusIcons[matrix.getStatus(row, day)];
+                if (icon != null) {
+                    int left = nameColumnWidth + day * cellWidth - offsetX;
+                    canvas.drawBitmap(icon, left + iconInsetX, top + iconInsetY, iconPaint);
+                }
+            }
+            canvas.drawLine(nameColumnWidth, top + rowHeight, width, top + rowHeight, gridPaint);
+        }
+        canvas.restore();
+
+        // 2. Frozen date header
+        canvas.drawRect(nameColumnWidth, 0, width, headerHeight, frozenPaint);
+        canvas.save();
+        canvas.clipRect(nameColumnWidth, 0, width, headerHeight);
+        float dayBaseline = headerHeight / 2f - 2;
+        float weekdayBaseline = headerHeight - weekdayPaint.descent() - 4;
+        for (int day = firstDay; day <= lastDay; day++) {
+            float center = nameColumnWidth + day * cellWidth - offsetX + cellWidth / 2f;
+            canvas.drawText(matrix.getDayLabel(day), center, dayBaseline, headerPaint);
+            canvas.drawText(matrix.getWeekdayLabel(day), center, weekdayBaseline, weekdayPaint);
+        }
+        canvas.restore();
+
+        // 3. Frozen name column
+        canvas.drawRect(0, headerHeight, nameColumnWidth, height, frozenPaint);
+        canvas.save();
+        canvas.clipRect(0, headerHeight, nameColumnWidth, height);
+        float textOffset = (rowHeight - namePaint.ascent() - namePaint.descent()) / 2f;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int top = headerHeight + row * rowHeight - offsetY;
+            canvas.drawText(nameAt(row), textPadding, top + textOffset, namePaint);
+            canvas.drawLine(0, top + rowHeight, nameColumnWidth, top + rowHeight, gridPaint);
+        }
+        canvas.restore();
+
+        // 4. Corner
+        canvas.drawRect(0, 0, nameColumnWidth, headerHeight, frozenPaint);
+        canvas.drawText("Employee", textPadding,
+                headerHeight / 2f - (cornerPaint.ascent() + cornerPaint.descent()) / 2f, cornerPaint);
+        canvas.drawLine(0, headerHeight, width, headerHeight, gridPaint);
+        canvas.drawLine(nameColumnWidth, 0, nameColumnWidth, height, gridPaint);
+    }
+
+    private String nameAt(int row) {
+        String name = ellipsizedNames[row];
+        if (name == null) {
+            User user = matrix.getEmployee(row);
+            String raw = user.getName() != null ? user.getName() : String.valueOf(user.getEmployeeId());
+            name = TextUtils.ellipsize(raw, namePaint, nameColumnWidth - textPadding * 2, TextUtils.TruncateAt.END).toString();
+            ellipsizedNames[row] = name;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,134 @@
+package com.inout.app.viewmodels;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.inout.app.models.AttendanceMatrix;
+import com.inout.app.models.MonthlyAttendance;
+import com.inout.app.models.User;
+import com.inout.app.utils.FrameCoalescer;
+import com.inout.app.utils.TimeUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * State of the company attendance matrix: one month of 'attendance_monthly' (a single
+ * query, one small document per employee) joined with the approved employees.
+ * The grid is rebuilt on a worker thread whenever either side changes; a newer build
+ * supersedes an older one still running. Bursts of monthly snapshots (many check-ins at
+ * once) start at most one build per frame.
+ */
+public class AttendanceMatrixViewModel extends ViewModel {
+
+    private static final String TAG = "AttendanceMatrixVM";
+
+    private static final ExecutorService BUILD_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+
+    private final MutableLiveData<AttendanceMatrix> matrix = new MutableLiveData<>();
+    private final MutableLiveData<String> errors = new MutableLiveData<>();
+
+    private final String monthId = TimeUtils.getCurrentMonthId();
+    private ListenerRegistration monthlyListener;
+
+    // Inputs of the latest build; only touched on the main thread
+    private List<User> employees;
+    private List<DocumentSnapshot> monthlyDocs;
+    private int buildGeneration;
+    private volatile int latestGeneration;
+
+    private final FrameCoalescer<QuerySnapshot> monthlySnapshots = new FrameCoalescer<>(value -> {
+        monthlyDocs = value.getDocuments();
+        rebuild();
+    });
+
+    public AttendanceMatrixViewModel() {
+        listenForMonth();
+    }
+
+    /**
+     * Null until both the employees and the month are loaded.
+     */
+    public LiveData<AttendanceMatrix> getMatrix() {
+        return matrix;
+    }
+
+    public LiveData<String> getErrors() {
+        return errors;
+    }
+
+    public void onErrorShown() {
+        errors.setValue(null);
+    }
+
+    public String getMonthId() {
+        return monthId;
+    }
+
+    /**
+     * Approved employees, in display order (from AdminDirectoryViewModel).
+     */
+    public void setEmployees(List<User> employees) {
+        if (employees == this.employees) return;
+        this.employees = employees;
+        rebuild();
+    }
+
+    private void listenForMonth() {
+        monthlyListener = db.collection("attendance_monthly")
+                .whereEqualTo("month", monthId)
+                .addSnapshotListener((value, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Monthly attendance listen failed", error);
+                        errors.setValue("Error loading attendance");
+                        if (monthlyDocs == null) {
+                            monthlyDocs = Collections.emptyList();
+                            rebuild();
+                        }
+                        return;
+                    }
+                    if (value != null) monthlySnapshots.submit(value);
+                });
+    }
+
+    private void rebuild() {
+        if (employees == null || monthlyDocs == null) return;
+        List<User> users = employees;
+        List<DocumentSnapshot> docs = monthlyDocs;
+        int generation = ++buildGeneration;
+        latestGeneration = generation;
+
+        BUILD_EXECUTOR.execute(() -> {
+            // Deserializing a few thousand documents is kept off the main thread too
+            Map<String, MonthlyAttendance> byEmployee = new HashMap<>(docs.size() * 2);
+            for (DocumentSnapshot doc : docs) {
+                if (generation != latestGeneration) return;
+                MonthlyAttendance month = doc.toObject(MonthlyAttendance.class);
+                if (month != null && month.getEmployeeId() != null) byEmployee.put(month.getEmployeeId(), month);
+            }
+            AttendanceMatrix built = AttendanceMatrix.build(monthId, users, byEmployee);
+            if (generation == latestGeneration) matrix.postValue(built);
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        latestGeneration = -1;
+        if (monthlyListener != null) monthlyListener.remove();
+        monthlySnapshots.cancel();
+    }
+}
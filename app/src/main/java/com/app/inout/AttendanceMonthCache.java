@@ -0,0 +1,263 @@
+package com.inout.app.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.inout.app.models.AttendanceRecord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * App-wide, size-bounded LRU of attendance months, keyed by "employeeId|yyyy-MM".
+ * 1. The current month is kept fresh by a snapshot listener while a screen observes it; the
+ *    listener is released with the last observer (or when it fails) and re-attached on demand.
+ * 2. Closed months cannot change any more, so they are read once and never refreshed.
+ * 3. Each month is one timestamp range query on the existing (employeeId, timestamp) index.
+ * Shared by AttendanceProfileDialog and CsvExportHelper, so re-opening or exporting a
+ * recently viewed employee needs no query. Main thread only; documents are mapped on the
+ * SnapshotExecutor and callbacks are delivered on the main thread.
+ */
+public class AttendanceMonthCache {
+
+    private static final String TAG = "AttendanceMonthCache";
+    // Two years of one employee's history plus a profile or export on the side
+    private static final int MAX_MONTHS = 36;
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private static AttendanceMonthCache instance;
+
+    public interface Callback {
+        /**
+         * @param byDate Immutable map of date (yyyy-MM-dd) to record; days without a record are absent.
+         */
+        void onMonthLoaded(Map<String, AttendanceRecord> byDate);
+
+        void onError(Exception e);
+    }
+
+    /**
+     * Handle of an observe() call; remove it when the screen goes away.
+     */
+    public static final class Registration {
+        private final Entry entry;
+        private final Callback callback;
+
+        private Registration(Entry entry, Callback callback) {
+            this.entry = entry;
+            this.callback = callback;
+        }
+
+        public void remove() {
+            entry.subscribers.remove(callback);
+            if (!entry.subscribers.isEmpty()) return;
+            if (entry.evicted) {
+                // An entry evicted while still observed is released by its last observer
+                entry.detach();
+            } else {
+                // Nobody looks at the live month any more: stop listening, keep the last records
+                entry.pause();
+            }
+        }
+    }
+
+    private final LruCache<String, Entry> months = new LruCache<String, Entry>(MAX_MONTHS) {
+        @Override
+        protected void entryRemoved(boolean evicted, String key, Entry oldValue, Entry newValue) {
+            oldValue.evicted = true;
+            if (oldValue.subscribers.isEmpty()) oldValue.detach();
+        }
+    };
+
+    private AttendanceMonthCache() {
+    }
+
+    public static synchronized AttendanceMonthCache getInstance() {
+        if (instance == null) {
+            instance = new AttendanceMonthCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Delivers the month now if cached, then again on every change while registered.
+     */
+    public Registration observe(String employeeId, String monthId, Callback callback) {
+        Entry entry = entryFor(employeeId, monthId);
+        entry.subscribers.add(callback);
+        // Records of a live month that was not listened to may be outdated; the listener brings fresh ones
+        if (entry.records != null && entry.upToDate) {
+            callback.onMonthLoaded(entry.records);
+        }
+        return new Registration(entry, callback);
+    }
+
+    /**
+     * One-shot read: delivers the month once, from memory when cached.
+     */
+    public void get(String employeeId, String monthId, Callback callback) {
+        OnceCallback once = new OnceCallback(callback);
+        once.registration = observe(employeeId, monthId, once);
+        // Already delivered synchronously from the cache: release right away
+        if (once.done) once.registration.remove();
+    }
+
+    /**
+     * Drops every cached month (e.g. on logout or company switch).
+     */
+    public void clear() {
+        months.evictAll();
+    }
+
+    private Entry entryFor(String employeeId, String monthId) {
+        String key = employeeId + "|" + monthId;
+        Entry entry = months.get(key);
+        if (entry != null && entry.needsReload()) {
+            // The last read failed, the live listener died, or it was released by the last observer
+            entry.load(entry.live);
+        } else if (entry == null) {
+            entry = new Entry(employeeId, monthId);
+            months.put(key, entry);
+            entry.load(monthId.equals(TimeUtils.getCurrentMonthId()));
+        }
+        return entry;
+    }
+
+    private static final class Entry {
+        final String employeeId;
+        final String monthId;
+        final List<Callback> subscribers = new ArrayList<>();
+        Map<String, AttendanceRecord> records;   // Null until loaded
+        boolean upToDate;                         // False while a live month is not listened to
+        boolean live;
+        ListenerRegistration listener;
+        // Mapped on the SnapshotExecutor; a burst of snapshots reaches subscribers once per frame
+        final FrameCoalescer<Map<String, AttendanceRecord>> updates = new FrameCoalescer<>(this::deliver);
+        boolean evicted;
+        boolean failed;
+
+        Entry(String employeeId, String monthId) {
+            this.employeeId = employeeId;
+            this.monthId = monthId;
+        }
+
+        void load(boolean live) {
+            this.live = live;
+            failed = false;
+            Query query = FirebaseFirestore.getInstance().collection("attendance")
+                    .whereEqualTo("employeeId", employeeId)
+                    .whereGreaterThanOrEqualTo("timestamp", TimeUtils.getMonthStartMillis(monthId, false))
+                    .whereLessThan("timestamp", TimeUtils.getMonthStartMillis(monthId, true))
+                    .orderBy("timestamp", Query.Direction.DESCENDING);
+
+            if (live) {
+                listener = query.addSnapshotListener(SnapshotExecutor.get(), (value, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Month listen failed: " + monthId, error);
+                        MAIN.post(() -> {
+                            updates.flush();
+                            // A failed listener never fires again; the next observe() attaches a new one
+                            pause();
+                            deliverError(error);
+                        });
+                        return;
+                    }
+                    if (value != null) updates.post(byDate(value));
+                });
+            } else {
+                query.get()
+                        .addOnSuccessListener(SnapshotExecutor.get(), value -> updates.post(byDate(value)))
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "Month read failed: " + monthId, e);
+                            deliverError(e);
+                        });
+            }
+        }
+
+        /**
+         * Runs on the SnapshotExecutor.
+         */
+        private static Map<String, AttendanceRecord> byDate(QuerySnapshot snapshot) {
+            Map<String, AttendanceRecord> byDate = new HashMap<>();
+            for (DocumentSnapshot doc : snapshot) {
+                AttendanceRecord record = doc.toObject(AttendanceRecord.class);
+                if (record != null && record.getDate() != null) byDate.put(record.getDate(), record);
+            }
+            return Collections.unmodifiableMap(byDate);
+        }
+
+        private void deliver(Map<String, AttendanceRecord> byDate) {
+            records = byDate;
+            upToDate = true;
+            failed = false;
+            for (Callback callback : new ArrayList<>(subscribers)) callback.onMonthLoaded(records);
+        }
+
+        private void deliverError(Exception e) {
+            failed = true;
+            for (Callback callback : new ArrayList<>(subscribers)) callback.onError(e);
+        }
+
+        boolean needsReload() {
+            return failed || (live && listener == null);
+        }
+
+        /**
+         * Stops a live listener but keeps the entry and its records.
+         */
+        void pause() {
+            if (listener != null) {
+                listener.remove();
+                listener = null;
+            }
+            if (live) upToDate = false;
+        }
+
+        void detach() {
+            if (listener != null) {
+                listener.remove();
+                listener = null;
+            }
+            updates.cancel();
+        }
+    }
+
+    /**
+     * Forwards the first result only, then unregisters itself.
+     */
+    private static final class OnceCallback implements Callback {
+        private final Callback target;
+        Registration registration;
+        boolean done;
+
+        OnceCallback(Callback target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onMonthLoaded(Map<String, AttendanceRecord> byDate) {
+            if (done) return;
+            done = true;
+            target.onMonthLoaded(byDate);
+            if (registration != null) registration.remove();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            if (done) return;
+            done = true;
+            target.onError(e);
+            if (registration != null) registration.remove();
+        }
+    }
+}
@@ -8,51 +8,86 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.Window;
+import android.widget.FrameLayout;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
 import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.bumptech.glide.Glide;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.inout.app.adapters.AttendanceAdapter;
+import com.inout.app.adapters.AttendanceRowPool;
 import com.inout.app.databinding.DialogAttendanceProfileBinding;
 import com.inout.app.models.AttendanceRecord;
 import com.inout.app.models.User;
 import com.inout.app.utils.EncryptionHelper;
+import com.inout.app.utils.GooglePhotoUrl;
+import com.inout.app.viewmodels.AttendanceProfileViewModel;
+import com.inout.app.views.MonthHeatmapView;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * Professional Pop-up Window for Attendance Profile.
  * Features: Fixed CV-Header, Horizontal CSV Table, Full Month Report.
+ * The employee travels in the arguments and the report lives in AttendanceProfileViewModel,
+ * so the dialog survives rotation and process recreation without losing data or re-querying.
+ * The layout is inflated off the main thread while the month loads, and table rows come
+ * from the host activity's pre-warmed AttendanceRowPool.
  */
 public class AttendanceProfileDialog extends DialogFragment {
 
     private static final String TAG = "AttendanceDialog";
+    private static final String ARG_UID = "uid";
+    private static final String ARG_NAME = "name";
+    private static final String ARG_EMPLOYEE_ID = "employee_id";
+    private static final String ARG_PHONE = "phone";
+    private static final String ARG_PHOTO_URL = "photo_url";
+
     private DialogAttendanceProfileBinding binding;
     private User employee;
-    private FirebaseFirestore db;
+    private AttendanceProfileViewModel viewModel;
     private AttendanceAdapter adapter;
     private List<AttendanceRecord> fullMonthList;
 
     public static AttendanceProfileDialog newInstance(User user) {
+        Bundle args = new Bundle();
+        args.putString(ARG_UID, user.getUid());
+        args.putString(ARG_NAME, user.getName());
+        args.putString(ARG_EMPLOYEE_ID, user.getEmployeeId());
+        args.putString(ARG_PHONE, user.getPhone());
+        args.putString(ARG_PHOTO_URL, user.getPhotoUrl());
+
         AttendanceProfileDialog frag = new AttendanceProfileDialog();
-        frag.employee = user;
+        frag.setArguments(args);
         return frag;
     }
 
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        employee = userFromArguments(requireArguments());
+    }
+
+    private static User userFromArguments(Bundle args) {
+        User user = new User();
+        user.setUid(args.getString(ARG_UID));
+        user.setName(args.getString(ARG_NAME));
+        user.setEmployeeId(args.getString(ARG_EMPLOYEE_ID));
+        user.setPhone(args.getString(ARG_PHONE));
+        user.setPhotoUrl(args.getString(ARG_PHOTO_URL));
+        return user;
+    }
+
     @Override
     public void onStart() {
         super.onStart();
@@ -68,19 +103,35 @@ public class AttendanceProfileDialog extends DialogFragment {
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-        binding = DialogAttendanceProfileBinding.inflate(inflater, container, false);
-        return binding.getRoot();
+        // Empty root now; the real layout is inflated on a worker thread and attached when ready
+        FrameLayout root = new FrameLayout(requireContext());
+        root.setLayoutParams(new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        new AsyncLayoutInflater(requireContext()).inflate(R.layout.dialog_attendance_profile, root,
+                (view, resid, parent) -> {
+                    // The dialog may have been closed while inflating
+                    if (getView() != root) return;
+                    root.addView(view);
+                    binding = DialogAttendanceProfileBinding.bind(view);
+                    onLayoutInflated();
+                });
+        return root;
     }
 
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        db = FirebaseFirestore.getInstance();
+        viewModel = new ViewModelProvider(this).get(AttendanceProfileViewModel.class);
         fullMonthList = new ArrayList<>();
 
+        // Start loading right away so the query overlaps with inflation
+        viewModel.load(employee.getEmployeeId());
+    }
+
+    private void onLayoutInflated() {
         setupHeader();
         setupTable();
-        loadAttendanceData();
+        observeAttendanceData();
 
         binding.btnClose.setOnClickListener(v -> dismiss());
 
@@ -89,7 +140,7 @@ public class AttendanceProfileDialog extends DialogFragment {
             if (fullMonthList != null && !fullMonthList.isEmpty()) {
                 String fileName = employee.getName().replace(" ", "_") + "_" + 
                                  new SimpleDateFormat("MMM_yyyy", Locale.US).format(Calendar.getInstance().getTime());
-                CsvExportHelper.exportAttendanceToCsv(requireContext(), fullMonthList, fileName);
+                CsvExportHelper.exportEmployeeMonth(requireContext(), employee.getEmployeeId(), viewModel.getMonthId(), fileName);
             } else {
                 Toast.makeText(getContext(), "No data available to export.", Toast.LENGTH_SHORT).show();
             }
@@ -108,73 +159,49 @@ public class AttendanceProfileDialog extends DialogFragment {
 
         if (employee.getPhotoUrl() != null && !employee.getPhotoUrl().isEmpty()) {
             Glide.with(this)
-                    .load(employee.getPhotoUrl())
+                    .load(new GooglePhotoUrl(employee.getPhotoUrl()))
                     .circleCrop()
+                    .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
                     .placeholder(R.drawable.inout)
                     .into(binding.ivProfilePhoto);
         }
     }
 
     private void setupTable() {
-        binding.rvAttendanceTable.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new AttendanceAdapter(fullMonthList);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        // Hand rows back to the shared pool when the dialog closes, for the next employee
+        layoutManager.setRecycleChildrenOnDetach(true);
+        binding.rvAttendanceTable.setLayoutManager(layoutManager);
+        if (requireActivity() instanceof AttendanceRowPool.Owner) {
+            binding.rvAttendanceTable.setRecycledViewPool(
+                    ((AttendanceRowPool.Owner) requireActivity()).getAttendanceRowPool());
+        }
+        adapter = new AttendanceAdapter();
         binding.rvAttendanceTable.setAdapter(adapter);
     }
 
-    private void loadAttendanceData() {
-        binding.progressBar.setVisibility(View.VISIBLE);
-
-        // FIXED: Changed Direction to DESCENDING to match the required Firestore Index
-        db.collection("attendance")
-                .whereEqualTo("employeeId", employee.getEmployeeId())
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    Map<String, AttendanceRecord> existingLogs = new HashMap<>();
-                    for (DocumentSnapshot doc : queryDocumentSnapshots) {
-                        AttendanceRecord record = doc.toObject(AttendanceRecord.class);
-                        if (record != null) {
-                            existingLogs.put(record.getDate(), record);
-                        }
-                    }
-                    generateFullMonthReport(existingLogs);
-                })
-                .addOnFailureListener(e -> {
-                    binding.progressBar.setVisibility(View.GONE);
-                    Log.e(TAG, "Data fetch failed", e);
-                    // This error is now handled by matching the Index direction
-                    Toast.makeText(getContext(), "Error loading month records", Toast.LENGTH_SHORT).show();
-                });
-    }
-
-    private void generateFullMonthReport(Map<String, AttendanceRecord> logs) {
-        fullMonthList.clear();
-        Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.DAY_OF_MONTH, 1);
-        int maxDay = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
-
-        SimpleDateFormat dateIdFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-        SimpleDateFormat dayNameFormat = new SimpleDateFormat("EEEE", Locale.US);
-
-        for (int i = 1; i <= maxDay; i++) {
-            String dateId = dateIdFormat.format(cal.getTime());
-            String dayName = dayNameFormat.format(cal.getTime());
+    private void observeAttendanceData() {
+        binding.progressBar.setVisibility(viewModel.getMonthReport().getValue() == null ? View.VISIBLE : View.GONE);
 
-            if (logs.containsKey(dateId)) {
-                AttendanceRecord record = logs.get(dateId);
-                // FIXED: Explicitly set the day name at runtime to ensure the column is not empty
-                record.setDayOfWeek(dayName);
-                fullMonthList.add(record);
-            } else {
-                AttendanceRecord absent = new AttendanceRecord();
-                absent.setDate(dateId);
-                absent.setDayOfWeek(dayName);
-                fullMonthList.add(absent);
-            }
-            cal.add(Calendar.DAY_OF_MONTH, 1);
-        }
+        viewModel.getMonthReport().observe(getViewLifecycleOwner(), report -> {
+            if (report == null) return;
+            binding.progressBar.setVisibility(View.GONE);
+            fullMonthList = report;
+            adapter.submitRecords(report);
+            binding.monthHeatmap.setMonth(viewModel.getMonthId(),
+                    MonthHeatmapView.statusesFor(viewModel.getMonthId(), report));
+        });
+        viewModel.getErrors().observe(getViewLifecycleOwner(), message -> {
+            if (message == null) return;
+            binding.progressBar.setVisibility(View.GONE);
+            Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+            viewModel.onErrorShown();
+        });
+    }
 
-        binding.progressBar.setVisibility(View.GONE);
-        adapter.notifyDataSetChanged();
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.inout.app.viewmodels;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.inout.app.AttendanceReportManager;
+import com.inout.app.models.AttendanceRecord;
+import com.inout.app.utils.AttendanceMonthCache;
+import com.inout.app.utils.SnapshotExecutor;
+import com.inout.app.utils.TimeUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Month report of one employee for AttendanceProfileDialog.
+ * Backed by the app-wide AttendanceMonthCache: re-opening a recently viewed employee renders
+ * from memory, and the current month keeps updating while the dialog is open.
+ * The full-month list (absent days, day names) is built on the SnapshotExecutor.
+ */
+public class AttendanceProfileViewModel extends AndroidViewModel {
+
+    private static final String TAG = "AttendanceProfileVM";
+
+    private final AttendanceMonthCache monthCache;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MutableLiveData<List<AttendanceRecord>> monthReport = new MutableLiveData<>();
+    private final MutableLiveData<String> errors = new MutableLiveData<>();
+    private String loadedEmployeeId;
+    private String monthId;
+    private AttendanceMonthCache.Registration registration;
+
+    public AttendanceProfileViewModel(@NonNull Application application) {
+        super(application);
+        monthCache = AttendanceMonthCache.getInstance();
+    }
+
+    /**
+     * One row per day of the current month, absent days included. Null while loading.
+     */
+    public LiveData<List<AttendanceRecord>> getMonthReport() {
+        return monthReport;
+    }
+
+    public LiveData<String> getErrors() {
+        return errors;
+    }
+
+    public void onErrorShown() {
+        errors.setValue(null);
+    }
+
+    /**
+     * Month key (yyyy-MM) of the report being shown.
+     */
+    public String getMonthId() {
+        return monthId;
+    }
+
+    /**
+     * Starts observing the report; does nothing if it is already observed for this employee.
+     */
+    public void load(String employeeId) {
+        if (employeeId == null || employeeId.equals(loadedEmployeeId)) return;
+        if (registration != null) registration.remove();
+        loadedEmployeeId = employeeId;
+        monthId = TimeUtils.getCurrentMonthId();
+        monthReport.setValue(null);
+
+        registration = monthCache.observe(employeeId, monthId, new AttendanceMonthCache.Callback() {
+            @Override
+            public void onMonthLoaded(Map<String, AttendanceRecord> byDate) {
+                String month = monthId;
+                SnapshotExecutor.get().execute(() -> {
+                    List<AttendanceRecord> report = Collections.unmodifiableList(
+                            AttendanceReportManager.generateFullMonthList(byDate, month));
+                    mainHandler.post(() -> {
+                        // Dropped if another employee was loaded meanwhile
+                        if (employeeId.equals(loadedEmployeeId)) monthReport.setValue(report);
+                    });
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Data fetch failed", e);
+                errors.setValue("Error loading month records");
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (registration != null) registration.remove();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+}
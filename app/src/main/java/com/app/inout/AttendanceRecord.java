@@ -33,6 +33,12 @@ public class AttendanceRecord {
     
     private long timestamp; 
 
+    // Materialized from the day's punches (several check-in/out pairs per day are possible)
+    private int sessions;               // Number of check-ins
+    private long totalMinutes;          // Sum of closed sessions
+    private String lastCheckInTime;     // Start of the latest session
+    private long lastCheckInTimestamp;
+
     /**
      * Default constructor required for Firestore.
      */
@@ -52,6 +58,33 @@ public class AttendanceRecord {
         this.gpsVerified = true;    
     }
 
+    /**
+     * Copy constructor, used for optimistic local updates that may need to be rolled back.
+     */
+    public AttendanceRecord(AttendanceRecord other) {
+        this.recordId = other.recordId;
+        this.employeeId = other.employeeId;
+        this.employeeName = other.employeeName;
+        this.date = other.date;
+        this.dayOfWeek = other.dayOfWeek;
+        this.checkInTime = other.checkInTime;
+        this.checkInLat = other.checkInLat;
+        this.checkInLng = other.checkInLng;
+        this.checkOutTime = other.checkOutTime;
+        this.checkOutLat = other.checkOutLat;
+        this.checkOutLng = other.checkOutLng;
+        this.totalHours = other.totalHours;
+        this.locationName = other.locationName;
+        this.distanceMeters = other.distanceMeters;
+        this.fingerprintVerified = other.fingerprintVerified;
+        this.gpsVerified = other.gpsVerified;
+        this.timestamp = other.timestamp;
+        this.sessions = other.sessions;
+        this.totalMinutes = other.totalMinutes;
+        this.lastCheckInTime = other.lastCheckInTime;
+        this.lastCheckInTimestamp = other.lastCheckInTimestamp;
+    }
+
     /**
      * Helper to determine status for the UI logic.
      */
@@ -210,4 +243,36 @@ public class AttendanceRecord {
     public void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
-}
\ No newline at end of file
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(int sessions) {
+        this.sessions = sessions;
+    }
+
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    public void setTotalMinutes(long totalMinutes) {
+        this.totalMinutes = totalMinutes;
+    }
+
+    public String getLastCheckInTime() {
+        return lastCheckInTime;
+    }
+
+    public void setLastCheckInTime(String lastCheckInTime) {
+        this.lastCheckInTime = lastCheckInTime;
+    }
+
+    public long getLastCheckInTimestamp() {
+        return lastCheckInTimestamp;
+    }
+
+    public void setLastCheckInTimestamp(long lastCheckInTimestamp) {
+        this.lastCheckInTimestamp = lastCheckInTimestamp;
+    }
+}
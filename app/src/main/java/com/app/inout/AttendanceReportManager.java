@@ -1,6 +1,7 @@
 package com.inout.app;
 
 import com.inout.app.models.AttendanceRecord;
+import com.inout.app.utils.TimeUtils;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -24,23 +25,31 @@ public class AttendanceReportManager {
      * @return A full list of AttendanceRecords for the entire month.
      */
     public static List<AttendanceRecord> generateFullMonthList(Map<String, AttendanceRecord> logs) {
+        return generateFullMonthList(logs, TimeUtils.getCurrentMonthId());
+    }
+
+    /**
+     * Same as above for any month. Records from the logs are copied before the day name is
+     * set, so shared (cached) records are never modified.
+     *
+     * @param monthId Month key (yyyy-MM).
+     */
+    public static List<AttendanceRecord> generateFullMonthList(Map<String, AttendanceRecord> logs, String monthId) {
         List<AttendanceRecord> fullList = new ArrayList<>();
         
-        // 1. Get the current calendar instance
+        // 1. Start at the first day of the requested month
         Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(TimeUtils.getMonthStartMillis(monthId, false));
         
-        // 2. Set to the first day of the current month
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        
-        // 3. Determine how many days are in this month (28, 29, 30, or 31)
+        // 2. Determine how many days are in this month (28, 29, 30, or 31)
         int totalDaysInMonth = calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
 
-        // 4. Setup date formatters
+        // 3. Setup date formatters
         SimpleDateFormat dateIdFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
         // This formatter specifically extracts the Day name (e.g., Monday)
         SimpleDateFormat dayNameFormat = new SimpleDateFormat("EEEE", Locale.US);
 
-        // 5. Loop through every day of the month from 1 to totalDaysInMonth
+        // 4. Loop through every day of the month from 1 to totalDaysInMonth
         for (int i = 1; i <= totalDaysInMonth; i++) {
             String dateId = dateIdFormat.format(calendar.getTime());
             String dayName = dayNameFormat.format(calendar.getTime());
@@ -51,8 +60,9 @@ public class AttendanceReportManager {
                 
                 if (realRecord != null) {
                     // FIXED: Set the day name calculated from the calendar
-                    realRecord.setDayOfWeek(dayName);
-                    fullList.add(realRecord);
+                    AttendanceRecord row = new AttendanceRecord(realRecord);
+                    row.setDayOfWeek(dayName);
+                    fullList.add(row);
                 }
             } else {
                 // DATA MISSING: Create a professional "Absent" record for this date
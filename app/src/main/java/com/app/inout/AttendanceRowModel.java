@@ -0,0 +1,174 @@
+package com.inout.app.adapters;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.inout.app.R;
+import com.inout.app.models.AttendanceRecord;
+
+import java.util.Objects;
+
+/**
+ * Immutable, display-ready form of one attendance table row.
+ * Every string, icon and alpha is resolved once (off the main thread) by from(), so
+ * binding a row is plain field assignment and diffing is a value comparison.
+ */
+public final class AttendanceRowModel {
+
+    private static final float ABSENT_ALPHA = 0.5f;
+
+    private final String key;
+    private final String date;
+    private final String day;
+    private final String checkIn;
+    private final String checkOut;
+    private final String totalHours;
+    private final String location;
+    private final String distance;
+    @DrawableRes private final int fingerprintIcon;
+    @DrawableRes private final int gpsIcon;
+    @DrawableRes private final int statusIcon;
+    private final float dateAlpha;
+
+    private AttendanceRowModel(String key, String date, String day, String checkIn, String checkOut,
+                               String totalHours, String location, String distance,
+                               int fingerprintIcon, int gpsIcon, int statusIcon, float dateAlpha) {
+        this.key = key;
+        this.date = date;
+        this.day = day;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.totalHours = totalHours;
+        this.location = location;
+        this.distance = distance;
+        this.fingerprintIcon = fingerprintIcon;
+        this.gpsIcon = gpsIcon;
+        this.statusIcon = statusIcon;
+        this.dateAlpha = dateAlpha;
+    }
+
+    /**
+     * Resolves the display values of a record (same rules the table always used).
+     */
+    public static AttendanceRowModel from(AttendanceRecord record) {
+        boolean checkedIn = record.getCheckInTime() != null;
+        String status = record.getStatus();
+
+        int statusIcon;
+        float alpha = 1.0f;
+        if (status.equals("Present")) {
+            statusIcon = R.drawable.ic_status_present;
+        } else if (status.equals("Partial")) {
+            statusIcon = R.drawable.ic_status_partial;
+        } else {
+            statusIcon = R.drawable.ic_status_absent;
+            // Visual Polish: Gray out the row if the employee was absent
+            alpha = ABSENT_ALPHA;
+        }
+
+        return new AttendanceRowModel(
+                // Tables show one employee, so the date identifies a row (it stays the same when an absent day fills in)
+                record.getDate(),
+                record.getDate(),
+                record.getDayOfWeek() != null ? record.getDayOfWeek() : "--",
+                checkedIn ? record.getCheckInTime() : "--:--",
+                record.getCheckOutTime() != null ? record.getCheckOutTime() : "--:--",
+                record.getTotalHours() != null ? record.getTotalHours() : "0h 00m",
+                record.getLocationName() != null ? record.getLocationName() : "N/A",
+                // Distance, fingerprint and GPS proofs only exist once checked in
+                checkedIn ? Math.round(record.getDistanceMeters()) + "m" : "--",
+                checkedIn && record.isFingerprintVerified() ? R.drawable.ic_status_present : R.drawable.ic_status_absent,
+                checkedIn && record.isGpsVerified() ? R.drawable.ic_status_present : R.drawable.ic_status_absent,
+                statusIcon,
+                alpha);
+    }
+
+    public static final DiffUtil.ItemCallback<AttendanceRowModel> DIFF_CALLBACK = new DiffUtil.ItemCallback<AttendanceRowModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull AttendanceRowModel oldItem, @NonNull AttendanceRowModel newItem) {
+            return Objects.equals(oldItem.key, newItem.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull AttendanceRowModel oldItem, @NonNull AttendanceRowModel newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    /**
+     * @return Row identity used for diffing (the date).
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public String getCheckIn() {
+        return checkIn;
+    }
+
+    public String getCheckOut() {
+        return checkOut;
+    }
+
+    public String getTotalHours() {
+        return totalHours;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getDistance() {
+        return distance;
+    }
+
+    public int getFingerprintIcon() {
+        return fingerprintIcon;
+    }
+
+    public int getGpsIcon() {
+        return gpsIcon;
+    }
+
+    public int getStatusIcon() {
+        return statusIcon;
+    }
+
+    public float getDateAlpha() {
+        return dateAlpha;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AttendanceRowModel)) return false;
+        AttendanceRowModel that = (AttendanceRowModel) o;
+        return fingerprintIcon == that.fingerprintIcon
+                && gpsIcon == that.gpsIcon
+                && statusIcon == that.statusIcon
+                && Float.compare(dateAlpha, that.dateAlpha) == 0
+                && Objects.equals(key, that.key)
+                && Objects.equals(date, that.date)
+                && Objects.equals(day, that.day)
+                && Objects.equals(checkIn, that.checkIn)
+                && Objects.equals(checkOut, that.checkOut)
+                && Objects.equals(totalHours, that.totalHours)
+                && Objects.equals(location, that.location)
+                && Objects.equals(distance, that.distance);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, date, day, checkIn, checkOut, totalHours, location, distance,
+                fingerprintIcon, gpsIcon, statusIcon, dateAlpha);
+    }
+}
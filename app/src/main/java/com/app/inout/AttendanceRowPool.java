@@ -0,0 +1,72 @@
+package com.inout.app.adapters;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Pre-warmed view pool for attendance tables.
+ * The owning activity creates row holders while the main thread is idle, so the first
+ * month shown in a table is bound from the pool instead of creating rows mid-frame.
+ * The pool holds views, so it is owned by an Activity and never outlives it.
+ */
+public final class AttendanceRowPool {
+
+    // A month is at most 31 rows; one screen shows fewer, the rest are spare for scrolling
+    public static final int DEFAULT_ROWS = 32;
+
+    // Holders created per idle callback, so a burst of input is never delayed for long
+    private static final int ROWS_PER_IDLE = 4;
+
+    /**
+     * Implemented by activities that host attendance tables.
+     */
+    public interface Owner {
+        RecyclerView.RecycledViewPool getAttendanceRowPool();
+    }
+
+    private AttendanceRowPool() {
+    }
+
+    public static RecyclerView.RecycledViewPool create() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(AttendanceAdapter.VIEW_TYPE_ROW, DEFAULT_ROWS);
+        return pool;
+    }
+
+    /**
+     * Fills the pool up to {@code rows} holders in small batches whenever the main
+     * looper runs out of messages. Must be called on the main thread.
+     *
+     * @return The handler, which holds the context until the pool is full; pass it to
+     * {@link #cancelPrewarm} when the owner is destroyed.
+     */
+    public static MessageQueue.IdleHandler prewarmWhenIdle(Context context, RecyclerView.RecycledViewPool pool, int rows) {
+        // Parent only supplies the context; rows are never attached to it
+        FrameLayout parent = new FrameLayout(context);
+        AttendanceAdapter factory = new AttendanceAdapter();
+        MessageQueue.IdleHandler handler = new MessageQueue.IdleHandler() {
+            private int created;
+
+            @Override
+            public boolean queueIdle() {
+                for (int i = 0; i < ROWS_PER_IDLE && created < rows; i++, created++) {
+                    pool.putRecycledView(factory.createViewHolder(parent, AttendanceAdapter.VIEW_TYPE_ROW));
+                }
+                return created < rows;
+            }
+        };
+        Looper.myQueue().addIdleHandler(handler);
+        return handler;
+    }
+
+    /**
+     * Stops a prewarm that has not finished yet. Must be called on the main thread.
+     */
+    public static void cancelPrewarm(MessageQueue.IdleHandler handler) {
+        if (handler != null) Looper.myQueue().removeIdleHandler(handler);
+    }
+}
@@ -0,0 +1,191 @@
+package com.inout.app.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.LruCache;
+import android.util.SparseArray;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.core.content.ContextCompat;
+
+import com.inout.app.R;
+import com.inout.app.adapters.AttendanceRowModel;
+
+/**
+ * One row of the 10-column attendance table drawn as a single view.
+ * Replaces a LinearLayout of seven TextViews and three ImageViews: column widths are fixed
+ * (same dp values as layout_attendance_table_header.xml), text is drawn from StaticLayouts
+ * cached across all rows (most cells repeat: days, "--:--", hours, site names), and the
+ * status icons are drawn directly.
+ */
+public class AttendanceRowView extends View {
+
+    // Column widths in dp; must match layout_attendance_table_header.xml (1000dp in total)
+    private static final int[] COLUMN_WIDTHS_DP = {100, 90, 80, 80, 90, 180, 80, 100, 100, 100};
+    private static final int COL_DATE = 0, COL_DAY = 1, COL_IN = 2, COL_OUT = 3, COL_HOURS = 4,
+            COL_LOCATION = 5, COL_DISTANCE = 6, COL_FINGERPRINT = 7, COL_GPS = 8, COL_STATUS = 9;
+    private static final int TEXT_COLUMNS = 7;
+
+    private static final float TEXT_SIZE_SP = 13f;
+    private static final float ICON_SIZE_DP = 20f;
+    private static final float PADDING_H_DP = 4f;
+    private static final float PADDING_V_DP = 12f;
+    private static final float LOCATION_PADDING_START_DP = 8f;
+
+    // Shared by every row; key = column|width|textSize|style|text (text size follows the font scale)
+    private static final LruCache<String, StaticLayout> LAYOUT_CACHE = new LruCache<>(512);
+
+    private final int[] columnWidths = new int[COLUMN_WIDTHS_DP.length];
+    private final int paddingH;
+    private final int paddingV;
+    private final int iconSize;
+    private final int locationPaddingStart;
+    private final int contentHeight;
+    private final float textSize;
+
+    private final TextPaint plainPaint;
+    private final TextPaint dimPaint;       // Date/day of absent days
+    private final TextPaint boldPaint;      // Total hours
+    private final TextPaint inPaint;
+    private final TextPaint outPaint;
+
+    private final SparseArray<Drawable> icons = new SparseArray<>();
+    private final StaticLayout[] cells = new StaticLayout[TEXT_COLUMNS];
+    private final int[] cellOffsets = new int[TEXT_COLUMNS];
+    private AttendanceRowModel row;
+
+    public AttendanceRowView(Context context) {
+        super(context);
+        float density = getResources().getDisplayMetrics().density;
+        for (int i = 0; i < COLUMN_WIDTHS_DP.length; i++) {
+            columnWidths[i] = Math.round(COLUMN_WIDTHS_DP[i] * density);
+        }
+        paddingH = Math.round(PADDING_H_DP * density);
+        paddingV = Math.round(PADDING_V_DP * density);
+        iconSize = Math.round(ICON_SIZE_DP * density);
+        locationPaddingStart = Math.round(LOCATION_PADDING_START_DP * density);
+
+        textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, TEXT_SIZE_SP, getResources().getDisplayMetrics());
+        plainPaint = newPaint(textSize, Color.BLACK, false);
+        dimPaint = newPaint(textSize, Color.BLACK, false);
+        dimPaint.setAlpha(128);
+        boldPaint = newPaint(textSize, Color.BLACK, true);
+        inPaint = newPaint(textSize, ContextCompat.getColor(context, R.color.status_green), false);
+        outPaint = newPaint(textSize, ContextCompat.getColor(context, R.color.status_red), false);
+
+        Paint.FontMetricsInt metrics = plainPaint.getFontMetricsInt();
+        int lineHeight = metrics.descent - metrics.ascent;
+        contentHeight = Math.max(lineHeight, iconSize);
+
+        setBackgroundColor(Color.WHITE);
+    }
+
+    private static TextPaint newPaint(float textSize, int color, boolean bold) {
+        TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(textSize);
+        paint.setColor(color);
+        if (bold) paint.setTypeface(Typeface.DEFAULT_BOLD);
+        return paint;
+    }
+
+    /**
+     * Binds a row: looks up (or builds once) the text layouts; nothing is allocated for cached cells.
+     */
+    public void setRow(AttendanceRowModel row) {
+        this.row = row;
+        boolean dim = row.getDateAlpha() < 1f;
+        cells[COL_DATE] = layoutFor(COL_DATE, row.getDate(), dim ? dimPaint : plainPaint, dim ? 'd' : 'p', false);
+        cells[COL_DAY] = layoutFor(COL_DAY, row.getDay(), dim ? dimPaint : plainPaint, dim ? 'd' : 'p', false);
+        cells[COL_IN] = layoutFor(COL_IN, row.getCheckIn(), inPaint, 'i', false);
+        cells[COL_OUT] = layoutFor(COL_OUT, row.getCheckOut(), outPaint, 'o', false);
+        cells[COL_HOURS] = layoutFor(COL_HOURS, row.getTotalHours(), boldPaint, 'b', false);
+        cells[COL_LOCATION] = layoutFor(COL_LOCATION, row.getLocation(), plainPaint, 'p', true);
+        cells[COL_DISTANCE] = layoutFor(COL_DISTANCE, row.getDistance(), plainPaint, 'p', false);
+        setContentDescription(row.getDate() + ", " + row.getDay() + ", in " + row.getCheckIn()
+                + ", out " + row.getCheckOut() + ", " + row.getTotalHours() + ", " + row.getLocation());
+        invalidate();
+    }
+
+    private StaticLayout layoutFor(int column, String text, TextPaint paint, char style, boolean startAligned) {
+        int width = columnWidths[column] - (startAligned ? locationPaddingStart : 0);
+        String key = column + "|" + width + "|" + textSize + "|" + style + "|" + text;
+        StaticLayout layout = LAYOUT_CACHE.get(key);
+        if (layout == null) {
+            // One line per cell keeps every row the same height
+            layout = StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setAlignment(startAligned ? Layout.Alignment.ALIGN_NORMAL : Layout.Alignment.ALIGN_CENTER)
+                    .setMaxLines(1)
+                    .setEllipsize(TextUtils.TruncateAt.END)
+                    .setIncludePad(false)
+                    .build();
+            LAYOUT_CACHE.put(key, layout);
+        }
+        cellOffsets[column] = startAligned ? locationPaddingStart : 0;
+        return layout;
+    }
+
+    private Drawable icon(int resId) {
+        Drawable drawable = icons.get(resId);
+        if (drawable == null) {
+            drawable = ContextCompat.getDrawable(getContext(), resId);
+            icons.put(resId, drawable);
+        }
+        return drawable;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // Fixed size: measured the same for every row
+        int width = paddingH * 2;
+        for (int w : columnWidths) width += w;
+        setMeasuredDimension(width, contentHeight + paddingV * 2);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (row == null) return;
+
+        int x = paddingH;
+        int top = paddingV;
+        for (int column = 0; column < columnWidths.length; column++) {
+            if (column < TEXT_COLUMNS) {
+                StaticLayout layout = cells[column];
+                canvas.save();
+                canvas.translate(x + cellOffsets[column], top + (contentHeight - layout.getHeight()) / 2f);
+                layout.draw(canvas);
+                canvas.restore();
+            } else {
+                Drawable drawable = icon(iconFor(column));
+                if (drawable != null) {
+                    int left = x + (columnWidths[column] - iconSize) / 2;
+                    int iconTop = top + (contentHeight - iconSize) / 2;
+                    drawable.setBounds(left, iconTop, left + iconSize, iconTop + iconSize);
+                    drawable.draw(canvas);
+                }
+            }
+            x += columnWidths[column];
+        }
+    }
+
+    private int iconFor(int column) {
+        switch (column) {
+            case COL_FINGERPRINT:
+                return row.getFingerprintIcon();
+            case COL_GPS:
+                return row.getGpsIcon();
+            case COL_STATUS:
+            default:
+                return row.getStatusIcon();
+        }
+    }
+}
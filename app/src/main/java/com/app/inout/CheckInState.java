@@ -0,0 +1,117 @@
+package com.inout.app.viewmodels;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of everything the check-in screen shows.
+ * Built by CheckInViewModel from the profile, site and attendance sources;
+ * equal states are never emitted twice, so the UI only re-renders on real changes.
+ */
+public final class CheckInState {
+
+    public enum Phase {
+        LOADING,            // Nothing known yet
+        NO_ASSIGNMENT,      // Admin has not assigned a workplace
+        SITE_NOT_FOUND,     // Assigned IDs do not exist in 'locations'
+        CONNECTION_ERROR,   // Sites could not be fetched and nothing is cached
+        READY,              // Ready for the first check-in of the day
+        CHECKED_IN,         // A session is open
+        COMPLETED           // Last session closed; another check-in is allowed
+    }
+
+    private final Phase phase;
+    private final String employeeName;
+    private final String employeeId;
+    private final String siteName;
+    private final boolean onSite;
+    private final String checkedInSince;
+    private final String totalHours;
+    private final boolean hasRecord;
+    private final boolean pendingSync;
+
+    public CheckInState(Phase phase, String employeeName, String employeeId, String siteName, boolean onSite,
+                        String checkedInSince, String totalHours, boolean hasRecord, boolean pendingSync) {
+        this.phase = phase;
+        this.employeeName = employeeName;
+        this.employeeId = employeeId;
+        this.siteName = siteName;
+        this.onSite = onSite;
+        this.checkedInSince = checkedInSince;
+        this.totalHours = totalHours;
+        this.hasRecord = hasRecord;
+        this.pendingSync = pendingSync;
+    }
+
+    public static CheckInState loading() {
+        return new CheckInState(Phase.LOADING, null, null, null, false, null, null, false, false);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getSiteName() {
+        return siteName;
+    }
+
+    public boolean isOnSite() {
+        return onSite;
+    }
+
+    public String getCheckedInSince() {
+        return checkedInSince;
+    }
+
+    public String getTotalHours() {
+        return totalHours;
+    }
+
+    /**
+     * @return True if today's record exists (locally or on the server), i.e. a sync state is meaningful.
+     */
+    public boolean hasRecord() {
+        return hasRecord;
+    }
+
+    public boolean isPendingSync() {
+        return pendingSync;
+    }
+
+    public boolean isCheckInEnabled() {
+        return phase == Phase.READY || phase == Phase.COMPLETED;
+    }
+
+    public boolean isCheckOutEnabled() {
+        return phase == Phase.CHECKED_IN;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CheckInState)) return false;
+        CheckInState that = (CheckInState) o;
+        return onSite == that.onSite
+                && hasRecord == that.hasRecord
+                && pendingSync == that.pendingSync
+                && phase == that.phase
+                && Objects.equals(employeeName, that.employeeName)
+                && Objects.equals(employeeId, that.employeeId)
+                && Objects.equals(siteName, that.siteName)
+                && Objects.equals(checkedInSince, that.checkedInSince)
+                && Objects.equals(totalHours, that.totalHours);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(phase, employeeName, employeeId, siteName, onSite,
+                checkedInSince, totalHours, hasRecord, pendingSync);
+    }
+}
@@ -0,0 +1,478 @@
+package com.inout.app.viewmodels;
+
+import android.app.Application;
+import android.location.Location;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.inout.app.models.AttendanceRecord;
+import com.inout.app.models.CompanyConfig;
+import com.inout.app.models.PunchEvent;
+import com.inout.app.models.TodayStatus;
+import com.inout.app.models.User;
+import com.inout.app.utils.AssignmentCache;
+import com.inout.app.utils.AttendanceMaterializer;
+import com.inout.app.utils.GeofenceHelper;
+import com.inout.app.utils.LocationHelper;
+import com.inout.app.utils.PunchQueue;
+import com.inout.app.utils.SiteIndex;
+import com.inout.app.utils.TimeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * State store of the employee check-in screen.
+ * Owns the profile listener, the assigned-site fetch and the punch queue subscription, and
+ * combines them into one immutable CheckInState. Today's record comes from the 'todayStatus'
+ * field of the profile, so a single listener drives the whole screen; if that field is missing
+ * or from another day, today's daily record is read once instead. Lives across
+ * configuration changes, so a rotation re-renders the last state without any new query.
+ */
+public class CheckInViewModel extends AndroidViewModel {
+
+    private static final String TAG = "CheckInViewModel";
+
+    // Firestore 'in' queries accept at most 10 values (older SDK limit, safe for all projects)
+    private static final int SITE_QUERY_BATCH = 10;
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final FirebaseAuth mAuth = FirebaseAuth.getInstance();
+    private final LocationHelper locationHelper;
+    private final GeofenceHelper geofenceHelper;
+    private final AssignmentCache assignmentCache;
+    private final PunchQueue punchQueue;
+
+    private final MutableLiveData<CheckInState> state = new MutableLiveData<>(CheckInState.loading());
+    private final MutableLiveData<String> messages = new MutableLiveData<>();
+
+    private User currentUser;
+    private CompanyConfig targetSite;         // Site the last verified fix resolved to
+    private List<CompanyConfig> assignedSites = new ArrayList<>();
+    private List<String> loadedSiteIds;
+    private SiteIndex siteIndex;
+    private String sitesVersionStamp;         // Stamp of the site data currently in use
+    private CheckInState.Phase errorPhase;    // Set when the assignment cannot be resolved
+
+    private boolean profileLoaded;            // currentUser (and its todayStatus) came from the server/cache, not the assignment cache
+    private boolean serverPendingWrites;
+    private String fallbackRecordId;          // Daily record read because todayStatus did not cover today
+    private AttendanceRecord fallbackRecord;
+    private boolean fallbackLoading;
+    private AttendanceRecord todayRecord;     // serverRecord plus punches still in the local queue
+    private boolean todayPendingSync;
+
+    private ListenerRegistration profileListener;
+
+    private final PunchQueue.Listener queueListener = new PunchQueue.Listener() {
+        @Override
+        public void onQueueChanged() {
+            refreshTodayRecord();
+        }
+
+        @Override
+        public void onPunchRejected(PunchEvent event, Exception e) {
+            String action = event.isCheckIn() ? "Check-In" : "Check-Out";
+            messages.setValue(action + " failed: " + e.getMessage());
+        }
+    };
+
+    public CheckInViewModel(@NonNull Application application) {
+        super(application);
+        locationHelper = new LocationHelper(application);
+        geofenceHelper = new GeofenceHelper(application);
+        assignmentCache = new AssignmentCache(application);
+        punchQueue = PunchQueue.getInstance(application);
+        punchQueue.addListener(queueListener);
+
+        // Cached assignment makes the screen usable at once; the listeners below revalidate it
+        restoreCachedAssignment();
+        listenToProfile();
+    }
+
+    public LiveData<CheckInState> getState() {
+        return state;
+    }
+
+    /**
+     * One-off messages for the user (e.g. a punch rejected by the server). Cleared via onMessageShown().
+     */
+    public LiveData<String> getMessages() {
+        return messages;
+    }
+
+    public void onMessageShown() {
+        messages.setValue(null);
+    }
+
+    public LocationHelper getLocationHelper() {
+        return locationHelper;
+    }
+
+    public SiteIndex getSiteIndex() {
+        return siteIndex;
+    }
+
+    /**
+     * Site shown on screen and checked against first; see {@link #displaySite(Location)}.
+     */
+    public CompanyConfig getTargetSite() {
+        return displaySite(locationHelper.getWarmUpFix());
+    }
+
+    /**
+     * Records the site the last verified fix resolved to.
+     */
+    public void setTargetSite(CompanyConfig site) {
+        targetSite = site;
+        publish();
+    }
+
+    public int getGeofenceState(CompanyConfig site) {
+        return geofenceHelper.getState(site.getId());
+    }
+
+    /**
+     * Re-derives the state from sources that do not notify (warm-up fix, geofence state), and
+     * registers the geofences if location access was granted since (no-op when already registered).
+     * Today's record is re-evaluated too, so a screen left open past midnight moves to the new day.
+     */
+    public void refresh() {
+        geofenceHelper.registerSites(assignedSites);
+        refreshTodayRecord();
+    }
+
+    public boolean canCheckOut() {
+        return PunchEvent.isSessionOpen(todayRecord);
+    }
+
+    // --- Punches ---
+
+    /**
+     * @return false if the punch could not be stored on this device.
+     */
+    public boolean checkIn(CompanyConfig site, Location loc, float distance) {
+        PunchEvent event = newPunch(PunchEvent.TYPE_IN);
+        event.setCoordinates(loc.getLatitude(), loc.getLongitude());
+        event.setDistanceMeters(distance);
+        event.setLocationName(site.getName());
+        return submitPunch(event, site);
+    }
+
+    /**
+     * Works without the server record: the check-in may still be queued on this device.
+     *
+     * @return false if no session is open or the punch could not be stored.
+     */
+    public boolean checkOut(CompanyConfig site, Location loc) {
+        if (!canCheckOut()) return false;
+        PunchEvent event = newPunch(PunchEvent.TYPE_OUT);
+        event.setCoordinates(loc.getLatitude(), loc.getLongitude());
+        event.setCheckInTime(todayRecord.getLastCheckInTime() != null ? todayRecord.getLastCheckInTime() : todayRecord.getCheckInTime());
+        event.setLocationName(todayRecord.getLocationName());
+        return submitPunch(event, site);
+    }
+
+    private PunchEvent newPunch(String type) {
+        PunchEvent event = new PunchEvent(type,
+                currentUser.getEmployeeId(),
+                currentUser.getName(),
+                TimeUtils.getCurrentDateId(),
+                TimeUtils.getCurrentTime(),
+                TimeUtils.getCurrentTimestamp());
+        event.setFingerprintVerified(true);
+        event.setGpsVerified(true);
+        if (mAuth.getCurrentUser() != null) event.setUid(mAuth.getCurrentUser().getUid());
+        return event;
+    }
+
+    /**
+     * Stores the punch durably first; the queue writes it now or once the network is back.
+     * The new state is shown immediately (optimistic) via the pending overlay.
+     * The status after the punch travels with it and is written to the profile in the same batch.
+     *
+     * @param site the site the punch was verified against.
+     */
+    private boolean submitPunch(PunchEvent event, CompanyConfig site) {
+        AttendanceRecord after = event.applyTo(todayRecord);
+        event.setTodayStatus(TodayStatus.fromRecord(after, site.getRadius(), event.getTimestamp()).toMap());
+        if (!punchQueue.enqueue(event)) return false;
+        refreshTodayRecord();
+        return true;
+    }
+
+    // --- Sources ---
+
+    /**
+     * Applies the last resolved assignment from the encrypted cache, without any network call.
+     * loadedSiteIds stays unset so the first profile snapshot still refetches the sites.
+     */
+    private void restoreCachedAssignment() {
+        if (mAuth.getCurrentUser() == null) return;
+        AssignmentCache.Entry cached = assignmentCache.load(mAuth.getCurrentUser().getUid());
+        if (cached == null) return;
+
+        currentUser = cached.toUser();
+        applySites(cached.getSites(), cached.getVersionStamp());
+        Log.d(TAG, "Using cached office assignment: " + cached.getSites().size() + " site(s).");
+        // Queued punches are visible even before the first profile snapshot arrives
+        refreshTodayRecord();
+    }
+
+    /**
+     * READ LOGIC: Listens to the user profile for approval, name, assignment and today's status.
+     * Metadata changes included so the sync indicator flips when the server acknowledges a write.
+     */
+    private void listenToProfile() {
+        if (mAuth.getCurrentUser() == null) return;
+        String uid = mAuth.getCurrentUser().getUid();
+
+        profileListener = db.collection("users").document(uid).addSnapshotListener(MetadataChanges.INCLUDE, (doc, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Profile listen failed", error);
+                return;
+            }
+            if (doc == null || !doc.exists()) return;
+
+            // Map Firestore document to Java Object using the fixed model with @PropertyName
+            User user = doc.toObject(User.class);
+            if (user == null) return;
+            boolean identityChanged = currentUser == null
+                    || !Objects.equals(currentUser.getName(), user.getName())
+                    || !Objects.equals(currentUser.getEmployeeId(), user.getEmployeeId());
+            currentUser = user;
+
+            // CHECK: Is at least one location assigned in the database?
+            List<String> siteIds = currentUser.getAllAssignedLocationIds();
+            if (siteIds.isEmpty()) {
+                assignedSites = new ArrayList<>();
+                siteIndex = null;
+                targetSite = null;
+                loadedSiteIds = null;
+                sitesVersionStamp = null;
+                errorPhase = CheckInState.Phase.NO_ASSIGNMENT;
+                assignmentCache.clear();
+            } else if (!siteIds.equals(loadedSiteIds)) {
+                // Go get the coordinates and names, only when the assignment changed
+                fetchAssignedSites(siteIds);
+            } else if (identityChanged) {
+                // Same sites, but name or employee ID changed
+                assignmentCache.save(currentUser, loadedSiteIds, assignedSites);
+            }
+
+            profileLoaded = true;
+            serverPendingWrites = doc.getMetadata().hasPendingWrites();
+            refreshTodayRecord();
+        });
+    }
+
+    /**
+     * Fetches coordinates and NAMES for every office assigned to the user in as few
+     * round trips as possible (batched 'in' queries) and builds the spatial index.
+     */
+    private void fetchAssignedSites(List<String> siteIds) {
+        List<Task<QuerySnapshot>> queries = new ArrayList<>();
+        for (int i = 0; i < siteIds.size(); i += SITE_QUERY_BATCH) {
+            List<String> batch = siteIds.subList(i, Math.min(i + SITE_QUERY_BATCH, siteIds.size()));
+            queries.add(db.collection("locations").whereIn(FieldPath.documentId(), new ArrayList<>(batch)).get());
+        }
+
+        Tasks.<QuerySnapshot>whenAllSuccess(queries).addOnSuccessListener(results -> {
+            Map<String, CompanyConfig> byId = new HashMap<>();
+            for (QuerySnapshot result : results) {
+                for (DocumentSnapshot doc : result) {
+                    CompanyConfig site = doc.toObject(CompanyConfig.class);
+                    if (site != null) {
+                        site.setId(doc.getId());
+                        byId.put(doc.getId(), site);
+                    }
+                }
+            }
+
+            // Keep the admin's order so the primary assignment stays first
+            List<CompanyConfig> sites = new ArrayList<>();
+            for (String id : siteIds) {
+                if (byId.containsKey(id)) sites.add(byId.get(id));
+            }
+
+            if (sites.isEmpty()) {
+                Log.e(TAG, "Assigned location IDs do not exist in locations collection.");
+                errorPhase = CheckInState.Phase.SITE_NOT_FOUND;
+                publish();
+                return;
+            }
+
+            loadedSiteIds = siteIds;
+            String stamp = AssignmentCache.versionStamp(sites);
+            if (currentUser != null) assignmentCache.save(currentUser, siteIds, sites);
+
+            // Revalidation of the cached copy: nothing to rebuild if the site data is unchanged
+            if (stamp.equals(sitesVersionStamp)) {
+                Log.d(TAG, "Cached office assignment is up to date.");
+            } else {
+                applySites(sites, stamp);
+                Log.d(TAG, "Office assignment confirmed: " + sites.size() + " site(s).");
+            }
+            publish();
+        }).addOnFailureListener(e -> {
+            Log.e(TAG, "Failed to fetch assigned location details", e);
+            // Keep working from the cached assignment if there is one
+            if (siteIndex == null) {
+                errorPhase = CheckInState.Phase.CONNECTION_ERROR;
+                publish();
+            }
+        });
+    }
+
+    private void applySites(List<CompanyConfig> sites, String stamp) {
+        assignedSites = sites;
+        sitesVersionStamp = stamp;
+        siteIndex = new SiteIndex(sites);
+        targetSite = null;
+        errorPhase = null;
+        geofenceHelper.registerSites(sites);
+    }
+
+    /**
+     * Today's record as shown: the server/cache snapshot with any queued punches applied on top.
+     * A rejected punch leaves the queue, so recomputing also rolls it back.
+     */
+    private void refreshTodayRecord() {
+        if (currentUser == null || currentUser.getEmployeeId() == null) {
+            publish();
+            return;
+        }
+        String dateId = TimeUtils.getCurrentDateId();
+        String recordId = currentUser.getEmployeeId() + "_" + dateId;
+        AttendanceRecord serverRecord = serverRecordFor(dateId, recordId);
+        List<PunchEvent> pending = punchQueue.getPendingForRecord(recordId);
+        todayRecord = AttendanceMaterializer.fold(serverRecord, pending);
+        todayPendingSync = serverPendingWrites || !pending.isEmpty();
+        publish();
+    }
+
+    /**
+     * Today's record as known by the server: the profile's todayStatus when it is for today,
+     * otherwise the daily record itself (records from before todayStatus existed, or a day on
+     * which it was never written). Evaluated on every refresh, so the date is always current.
+     */
+    private AttendanceRecord serverRecordFor(String dateId, String recordId) {
+        TodayStatus status = currentUser.getTodayStatus();
+        if (status != null && status.isForDate(dateId)) {
+            return status.toRecord(currentUser.getEmployeeId(), currentUser.getName());
+        }
+        if (!profileLoaded) return null;
+        if (!recordId.equals(fallbackRecordId)) loadFallbackRecord(recordId);
+        return fallbackRecord;
+    }
+
+    private void loadFallbackRecord(String recordId) {
+        fallbackRecordId = recordId;
+        fallbackRecord = null;
+        fallbackLoading = true;
+        db.collection("attendance").document(recordId).get()
+                .addOnSuccessListener(doc -> {
+                    if (!recordId.equals(fallbackRecordId)) return;
+                    fallbackLoading = false;
+                    AttendanceRecord record = doc.exists() ? doc.toObject(AttendanceRecord.class) : null;
+                    if (record != null) record.setRecordId(recordId);
+                    fallbackRecord = record;
+                    refreshTodayRecord();
+                })
+                .addOnFailureListener(e -> {
+                    if (!recordId.equals(fallbackRecordId)) return;
+                    // Offline without a cached copy: the punch queue and materializer still keep the day consistent
+                    Log.e(TAG, "Failed to read today's record " + recordId, e);
+                    fallbackLoading = false;
+                    refreshTodayRecord();
+                });
+    }
+
+    // --- State ---
+
+    /**
+     * Picks the site to show and to check against: the nearest assigned site to the given fix,
+     * else the last verified site while still assigned, else the primary assignment.
+     * Reads state only; the verified site changes through {@link #setTargetSite} alone.
+     */
+    private CompanyConfig displaySite(Location fix) {
+        if (siteIndex == null || siteIndex.isEmpty()) return null;
+        if (fix != null) return siteIndex.findNearest(fix.getLatitude(), fix.getLongitude());
+        if (targetSite != null && assignedSites.contains(targetSite)) return targetSite;
+        return assignedSites.get(0);
+    }
+
+    /**
+     * Combines all sources into one state; emits it only if it differs from the current one.
+     */
+    private void publish() {
+        CheckInState next = buildState();
+        if (!next.equals(state.getValue())) {
+            state.setValue(next);
+        }
+    }
+
+    private CheckInState buildState() {
+        if (currentUser == null) return CheckInState.loading();
+
+        String name = currentUser.getName();
+        String employeeId = currentUser.getEmployeeId();
+        boolean hasRecord = todayRecord != null;
+
+        if (errorPhase != null) {
+            return new CheckInState(errorPhase, name, employeeId, null, false, null, null, hasRecord, todayPendingSync);
+        }
+
+        // Show the site nearest to the latest known fix
+        CompanyConfig shown = displaySite(locationHelper.getWarmUpFix());
+        if (shown == null) {
+            return new CheckInState(CheckInState.Phase.LOADING, name, employeeId, null, false, null, null, hasRecord, todayPendingSync);
+        }
+
+        String siteName = shown.getName() != null ? shown.getName() : "Office";
+        boolean onSite = geofenceHelper.getState(shown.getId()) == GeofenceHelper.STATE_INSIDE;
+
+        if (todayRecord == null) {
+            // Not READY until we know there is no record for today, or a second check-in could be offered:
+            // the cached assignment carries no status, so wait for the profile and then the fallback read
+            if (!profileLoaded || fallbackLoading) {
+                return new CheckInState(CheckInState.Phase.LOADING, name, employeeId, siteName, onSite, null, null, false, false);
+            }
+            return new CheckInState(CheckInState.Phase.READY, name, employeeId, siteName, onSite, null, null, false, false);
+        }
+
+        // Once checked in, the record's own site name is what matters
+        String recordSite = todayRecord.getLocationName() != null ? todayRecord.getLocationName() : siteName;
+        if (PunchEvent.isSessionOpen(todayRecord)) {
+            String since = todayRecord.getLastCheckInTime() != null ? todayRecord.getLastCheckInTime() : todayRecord.getCheckInTime();
+            return new CheckInState(CheckInState.Phase.CHECKED_IN, name, employeeId, recordSite, onSite, since, null, true, todayPendingSync);
+        }
+        return new CheckInState(CheckInState.Phase.COMPLETED, name, employeeId, recordSite, onSite,
+                null, todayRecord.getTotalHours(), true, todayPendingSync);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (profileListener != null) profileListener.remove();
+        punchQueue.removeListener(queueListener);
+        locationHelper.stopWarmUp();
+        locationHelper.cancelPendingRequest();
+    }
+}
@@ -1,7 +1,12 @@
 package com.inout.app.models;
 
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.GeoPoint;
 import com.google.firebase.firestore.IgnoreExtraProperties;
 import com.google.firebase.firestore.PropertyName;
+import com.inout.app.utils.SitePolygon;
+
+import java.util.List;
 
 /**
  * Model class representing an Office Location / Company Configuration.
@@ -17,6 +22,11 @@ public class CompanyConfig {
     private double longitude;
     private float radius;       // Allowed radius in meters (default 100)
 
+    // Optional polygon outline; when present it replaces the circle for containment.
+    // 'radius' then holds the circle around the outline (used for indexing and geofences).
+    private List<GeoPoint> boundary;
+    private SitePolygon polygon; // Built lazily from 'boundary', never stored
+
     public CompanyConfig() {
         // Default constructor required for Firestore
         this.radius = 100.0f; // Default safety radius
@@ -80,4 +90,31 @@ public class CompanyConfig {
     public void setRadius(float radius) {
         this.radius = radius;
     }
+
+    @PropertyName("boundary")
+    public List<GeoPoint> getBoundary() {
+        return boundary;
+    }
+
+    @PropertyName("boundary")
+    public void setBoundary(List<GeoPoint> boundary) {
+        this.boundary = boundary;
+        this.polygon = null;
+    }
+
+    @Exclude
+    public boolean hasBoundary() {
+        return boundary != null && boundary.size() >= 3;
+    }
+
+    /**
+     * @return The precomputed polygon for the boundary, or null for a circular site.
+     */
+    @Exclude
+    public SitePolygon getPolygon() {
+        if (polygon == null && hasBoundary()) {
+            polygon = new SitePolygon(boundary);
+        }
+        return polygon;
+    }
 }
\ No newline at end of file
@@ -9,11 +9,13 @@ import android.widget.Toast;
 import androidx.core.content.FileProvider;
 
 import com.inout.app.models.AttendanceRecord;
+import com.inout.app.utils.AttendanceMonthCache;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Utility to generate and share professional attendance reports.
@@ -23,6 +25,28 @@ public class CsvExportHelper {
 
     private static final String TAG = "CsvExportHelper";
 
+    /**
+     * Exports one employee's month through the shared AttendanceMonthCache: instant when the
+     * month was viewed recently, otherwise a single range query.
+     *
+     * @param monthId Month key (yyyy-MM).
+     */
+    public static void exportEmployeeMonth(Context context, String employeeId, String monthId, String fileName) {
+        Context appContext = context.getApplicationContext();
+        AttendanceMonthCache.getInstance().get(employeeId, monthId, new AttendanceMonthCache.Callback() {
+            @Override
+            public void onMonthLoaded(Map<String, AttendanceRecord> byDate) {
+                exportAttendanceToCsv(context, AttendanceReportManager.generateFullMonthList(byDate, monthId), fileName);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Month load for export failed", e);
+                Toast.makeText(appContext, "Error loading month records", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
     /**
      * Converts the full month list into a CSV-formatted string and opens the share menu.
      * 
@@ -1,44 +1,69 @@
 package com.inout.app;
 
+import android.Manifest;
+import android.app.AlertDialog;
+import android.content.pm.PackageManager;
 import android.location.Location;
+import android.os.Build;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 import com.inout.app.databinding.FragmentEmployeeCheckinBinding;
-import com.inout.app.models.AttendanceRecord;
 import com.inout.app.models.CompanyConfig;
-import com.inout.app.models.User;
 import com.inout.app.utils.BiometricHelper;
+import com.inout.app.utils.EncryptionHelper;
+import com.inout.app.utils.GeoDistance;
+import com.inout.app.utils.GeofenceHelper;
+import com.inout.app.utils.LocationAcceptancePolicy;
 import com.inout.app.utils.LocationHelper;
-import com.inout.app.utils.TimeUtils;
+import com.inout.app.utils.SiteIndex;
+import com.inout.app.viewmodels.CheckInState;
+import com.inout.app.viewmodels.CheckInViewModel;
 
 /**
  * Fragment where employees perform Check-In and Check-Out.
  * FIXED: Ensures Location Name is displayed in the status text and syncs with annotated models.
+ * Renders CheckInState from CheckInViewModel; only biometrics and the location check live here.
+ * Also asks for location access: precise location for the check itself, then (once, with a
+ * rationale) background location so office geofences can detect arrival.
  */
 public class EmployeeCheckInFragment extends Fragment {
 
     private static final String TAG = "CheckInFrag";
+
     private FragmentEmployeeCheckinBinding binding;
-    
-    private FirebaseFirestore db;
-    private FirebaseAuth mAuth;
+    private CheckInViewModel viewModel;
     private LocationHelper locationHelper;
-    
-    private User currentUser;
-    private CompanyConfig assignedLocation;
-    private AttendanceRecord todayRecord;
+    private final LocationAcceptancePolicy acceptancePolicy = LocationAcceptancePolicy.defaultPolicy();
+
+    private ActivityResultLauncher<String[]> locationPermissionLauncher;
+    private ActivityResultLauncher<String> backgroundLocationLauncher;
+
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        locationPermissionLauncher = registerForActivityResult(new ActivityResultContracts.RequestMultiplePermissions(), result -> {
+            if (hasPermission(Manifest.permission.ACCESS_FINE_LOCATION)) {
+                onLocationAccessChanged();
+                requestBackgroundLocationOnce();
+            } else {
+                Toast.makeText(getContext(), "Location permission is required to Check-In.", Toast.LENGTH_LONG).show();
+            }
+        });
+        backgroundLocationLauncher = registerForActivityResult(new ActivityResultContracts.RequestPermission(),
+                granted -> onLocationAccessChanged());
+    }
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -50,136 +75,168 @@ public class EmployeeCheckInFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = FirebaseFirestore.getInstance();
-        mAuth = FirebaseAuth.getInstance();
-        locationHelper = new LocationHelper(requireContext());
+        // Activity scope: switching to the history tab and back keeps listeners and sites alive
+        viewModel = new ViewModelProvider(requireActivity()).get(CheckInViewModel.class);
+        locationHelper = viewModel.getLocationHelper();
 
         // UI starts in a safe disabled state until profile/location is confirmed
         binding.btnCheckIn.setEnabled(false);
         binding.btnCheckOut.setEnabled(false);
 
-        loadUserDataAndStatus();
+        viewModel.getState().observe(getViewLifecycleOwner(), this::render);
+        viewModel.getMessages().observe(getViewLifecycleOwner(), message -> {
+            if (message == null) return;
+            Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+            viewModel.onMessageShown();
+        });
 
         binding.btnCheckIn.setOnClickListener(v -> initiateAction(true));
         binding.btnCheckOut.setOnClickListener(v -> initiateAction(false));
+
+        if (savedInstanceState == null) requestLocationAccess();
+    }
+
+    // --- Location permissions ---
+
+    private boolean hasPermission(String permission) {
+        return ContextCompat.checkSelfPermission(requireContext(), permission) == PackageManager.PERMISSION_GRANTED;
     }
 
     /**
-     * READ LOGIC: Fetches user profile and retrieves the office assignment ID.
+     * Precise location is required for every punch. Shows the rationale first if the user
+     * declined before.
      */
-    private void loadUserDataAndStatus() {
-        if (mAuth.getCurrentUser() == null) return;
-        String uid = mAuth.getCurrentUser().getUid();
-        
-        // Listen for profile changes (Approval, Name updates, Location assignment)
-        db.collection("users").document(uid).addSnapshotListener((doc, error) -> {
-            if (error != null) {
-                Log.e(TAG, "Profile listen failed", error);
-                return;
-            }
-            
-            if (doc != null && doc.exists()) {
-                // Map Firestore document to Java Object using the fixed model with @PropertyName
-                currentUser = doc.toObject(User.class);
-                
-                if (currentUser != null) {
-                    // Update UI Header with live data from Firestore
-                    binding.tvEmployeeName.setText(currentUser.getName() != null ? currentUser.getName() : "Unknown User");
-                    binding.tvEmployeeId.setText(currentUser.getEmployeeId() != null ? currentUser.getEmployeeId() : "Pending ID");
-
-                    // CHECK: Is a location assigned in the database?
-                    String locId = currentUser.getAssignedLocationId();
-                    
-                    if (locId != null && !locId.isEmpty()) {
-                        // Success: Go get the coordinates and Name for this location
-                        fetchAssignedLocationDetails(locId);
-                    } else {
-                        // Fail: Location ID is missing from the profile
-                        binding.tvStatus.setText("Status: No workplace assigned by Admin.");
-                        binding.btnCheckIn.setEnabled(false);
-                        binding.btnCheckOut.setEnabled(false);
-                    }
-                    
-                    loadTodayAttendance();
-                }
-            }
-        });
+    private void requestLocationAccess() {
+        if (hasPermission(Manifest.permission.ACCESS_FINE_LOCATION)) {
+            requestBackgroundLocationOnce();
+            return;
+        }
+        String[] permissions = {Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.ACCESS_COARSE_LOCATION};
+        if (shouldShowRequestPermissionRationale(Manifest.permission.ACCESS_FINE_LOCATION)) {
+            new AlertDialog.Builder(requireContext())
+                    .setTitle("Location Required")
+                    .setMessage("InOut checks that you are at your assigned office when you Check-In or Check-Out. "
+                            + "Your location is only read at that moment.")
+                    .setPositiveButton("Continue", (dialog, which) -> locationPermissionLauncher.launch(permissions))
+                    .setNegativeButton("Not now", null)
+                    .show();
+        } else {
+            locationPermissionLauncher.launch(permissions);
+        }
     }
 
     /**
-     * Fetches specific coordinates and NAME for the office ID assigned to the user.
+     * Android 10+ only delivers geofence transitions with "Allow all the time". Optional:
+     * without it the check falls back to a normal GPS fix at tap time, so we ask only once.
      */
-    private void fetchAssignedLocationDetails(String locId) {
-        db.collection("locations").document(locId).get().addOnSuccessListener(doc -> {
-            if (doc.exists()) {
-                // Map using the fixed CompanyConfig with @PropertyName
-                assignedLocation = doc.toObject(CompanyConfig.class);
-                if (assignedLocation != null) {
-                    Log.d(TAG, "Office assignment confirmed: " + assignedLocation.getName());
-                    updateUIBasedOnStatus();
-                }
-            } else {
-                Log.e(TAG, "Assigned location ID does not exist in locations collection.");
-                binding.tvStatus.setText("Status: Workplace record not found.");
-            }
-        }).addOnFailureListener(e -> {
-            Log.e(TAG, "Failed to fetch assigned location details", e);
-            binding.tvStatus.setText("Status: Connection error fetching office data.");
-        });
+    private void requestBackgroundLocationOnce() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q
+                || hasPermission(Manifest.permission.ACCESS_BACKGROUND_LOCATION)) return;
+        EncryptionHelper prefs = EncryptionHelper.getInstance(requireContext());
+        if (prefs.wasBackgroundLocationAsked()) return;
+        prefs.markBackgroundLocationAsked();
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Faster Check-In")
+                .setMessage("Allow location \"All the time\" to let InOut notice when you arrive at your office, "
+                        + "so Check-In there needs only a quick confirmation. Only your assigned office areas are watched. "
+                        + "You can change this later in Settings.")
+                .setPositiveButton("Allow", (dialog, which) ->
+                        backgroundLocationLauncher.launch(Manifest.permission.ACCESS_BACKGROUND_LOCATION))
+                .setNegativeButton("Not now", null)
+                .show();
     }
 
-    private void loadTodayAttendance() {
-        if (currentUser == null || currentUser.getEmployeeId() == null) return;
-        
-        String dateId = TimeUtils.getCurrentDateId();
-        String recordId = currentUser.getEmployeeId() + "_" + dateId;
+    private void onLocationAccessChanged() {
+        if (isResumed()) locationHelper.startWarmUp();
+        // Registers the office geofences if they were skipped for lack of permission
+        viewModel.refresh();
+    }
 
-        db.collection("attendance").document(recordId).addSnapshotListener((snapshot, e) -> {
-            if (snapshot != null && snapshot.exists()) {
-                todayRecord = snapshot.toObject(AttendanceRecord.class);
-            } else {
-                todayRecord = null;
-            }
-            updateUIBasedOnStatus();
-        });
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Keep a fix warm while the screen is visible so Check-In rarely waits for GPS
+        locationHelper.startWarmUp();
+        // Geofence state may have changed while the screen was hidden
+        viewModel.refresh();
     }
 
-    private void updateUIBasedOnStatus() {
-        if (currentUser == null) return;
+    @Override
+    public void onPause() {
+        super.onPause();
+        locationHelper.stopWarmUp();
+    }
 
-        // If location isn't fetched yet, keep buttons disabled
-        if (assignedLocation == null) {
-            binding.btnCheckIn.setEnabled(false);
-            binding.btnCheckOut.setEnabled(false);
-            return;
+    @Override
+    public void onStop() {
+        super.onStop();
+        // Never leave a GPS session running behind a hidden screen
+        locationHelper.cancelPendingRequest();
+        if (binding != null) binding.progressBar.setVisibility(View.GONE);
+    }
+
+    private void render(CheckInState state) {
+        if (binding == null) return;
+
+        if (state.getPhase() != CheckInState.Phase.LOADING || state.getEmployeeId() != null) {
+            binding.tvEmployeeName.setText(state.getEmployeeName() != null ? state.getEmployeeName() : "Unknown User");
+            binding.tvEmployeeId.setText(state.getEmployeeId() != null ? state.getEmployeeId() : "Pending ID");
         }
 
-        // Get the location name to display
-        String locName = assignedLocation.getName() != null ? assignedLocation.getName() : "Office";
-
-        if (todayRecord == null) {
-            // State: Ready for first check-in
-            binding.btnCheckIn.setEnabled(true);
-            binding.btnCheckOut.setEnabled(false);
-            binding.tvStatus.setText("Status: Ready to Check-In at " + locName);
-        } else if (todayRecord.getCheckOutTime() == null || todayRecord.getCheckOutTime().isEmpty()) {
-            // State: Checked In
-            binding.btnCheckIn.setEnabled(false);
-            binding.btnCheckOut.setEnabled(true);
-            binding.tvStatus.setText("Status: Checked In at " + todayRecord.getCheckInTime() + " (" + locName + ")");
+        binding.btnCheckIn.setEnabled(state.isCheckInEnabled());
+        binding.btnCheckOut.setEnabled(state.isCheckOutEnabled());
+        binding.tvStatus.setText(statusText(state));
+        renderSyncIndicator(state);
+    }
+
+    private static String statusText(CheckInState state) {
+        switch (state.getPhase()) {
+            case NO_ASSIGNMENT:
+                return "Status: No workplace assigned by Admin.";
+            case SITE_NOT_FOUND:
+                return "Status: Workplace record not found.";
+            case CONNECTION_ERROR:
+                return "Status: Connection error fetching office data.";
+            case READY:
+                return "Status: Ready to Check-In at " + state.getSiteName() + (state.isOnSite() ? " (On site)" : "");
+            case CHECKED_IN:
+                return "Status: Checked In at " + state.getCheckedInSince() + " (" + state.getSiteName() + ")";
+            case COMPLETED:
+                return "Status: Shift Completed at " + state.getSiteName() + " (" + state.getTotalHours() + ")";
+            case LOADING:
+            default:
+                return "Status: Loading...";
+        }
+    }
+
+    /**
+     * Shows whether today's record is confirmed by the server or only saved on this device.
+     */
+    private void renderSyncIndicator(CheckInState state) {
+        if (!state.hasRecord()) {
+            binding.tvSyncState.setVisibility(View.GONE);
+            return;
+        }
+        binding.tvSyncState.setVisibility(View.VISIBLE);
+        if (state.isPendingSync()) {
+            binding.tvSyncState.setText("Saved on this device • waiting to sync");
+            binding.tvSyncState.setTextColor(ContextCompat.getColor(requireContext(), R.color.status_orange));
         } else {
-            // State: Finished
-            binding.btnCheckIn.setEnabled(false);
-            binding.btnCheckOut.setEnabled(false);
-            binding.tvStatus.setText("Status: Shift Completed at " + locName + " (" + todayRecord.getTotalHours() + ")");
+            binding.tvSyncState.setText("Synced with server");
+            binding.tvSyncState.setTextColor(ContextCompat.getColor(requireContext(), R.color.status_green));
         }
     }
 
     private void initiateAction(boolean isCheckIn) {
-        if (assignedLocation == null) {
+        if (viewModel.getTargetSite() == null || viewModel.getSiteIndex() == null) {
             Toast.makeText(getContext(), "Error: Office location not assigned.", Toast.LENGTH_LONG).show();
             return;
         }
+        if (!hasPermission(Manifest.permission.ACCESS_FINE_LOCATION)) {
+            requestLocationAccess();
+            return;
+        }
 
         // Biometric security check
         BiometricHelper.authenticate(requireActivity(), new BiometricHelper.BiometricCallback() {
@@ -202,27 +259,45 @@ public class EmployeeCheckInFragment extends Fragment {
 
     private void verifyLocationAndProceed(boolean isCheckIn) {
         binding.progressBar.setVisibility(View.VISIBLE);
-        
-        locationHelper.getCurrentLocation(new LocationHelper.LocationResultCallback() {
+
+        CompanyConfig target = viewModel.getTargetSite();
+        SiteIndex siteIndex = viewModel.getSiteIndex();
+
+        // Inside the platform geofence a confirmation fix is enough, usually already available
+        LocationAcceptancePolicy policy = viewModel.getGeofenceState(target) == GeofenceHelper.STATE_INSIDE
+                ? LocationAcceptancePolicy.geofenceConfirmationPolicy()
+                : acceptancePolicy;
+
+        locationHelper.getCurrentLocation(target, policy, new LocationHelper.LocationResultCallback() {
             @Override
             public void onLocationResult(Location location) {
+                if (binding == null) return;
                 binding.progressBar.setVisibility(View.GONE);
-                
+
                 if (location != null) {
-                    boolean inRange = LocationHelper.isWithinRadius(
-                            location.getLatitude(), location.getLongitude(),
-                            assignedLocation.getLatitude(), assignedLocation.getLongitude(),
-                            assignedLocation.getRadius());
+                    // Nearest site that really contains the fix (circle or polygon); else the nearest one for the message
+                    CompanyConfig site = LocationHelper.firstSiteContaining(
+                            siteIndex.findAllContaining(location.getLatitude(), location.getLongitude()),
+                            location.getLatitude(), location.getLongitude());
+                    boolean inRange = site != null;
+                    if (site == null) {
+                        site = siteIndex.findNearest(location.getLatitude(), location.getLongitude());
+                    }
+                    viewModel.setTargetSite(site);
 
                     if (inRange) {
-                        float dist = LocationHelper.calculateDistance(
-                                location.getLatitude(), location.getLongitude(),
-                                assignedLocation.getLatitude(), assignedLocation.getLongitude());
-                        
-                        if (isCheckIn) performCheckIn(location, dist);
-                        else performCheckOut(location);
+                        if (isCheckIn) {
+                            // Only the stored distance needs the precise value; the range check used the fast path
+                            float dist = GeoDistance.preciseDistance(
+                                    location.getLatitude(), location.getLongitude(),
+                                    site.getLatitude(), site.getLongitude());
+                            reportPunch(viewModel.checkIn(site, location, dist), "Check-In");
+                        } else {
+                            reportPunch(viewModel.checkOut(site, location), "Check-Out");
+                        }
                     } else {
-                        String msg = "Denied: You are not at " + assignedLocation.getName() + " (Out of 100m range).";
+                        String range = site.hasBoundary() ? "outside site boundary" : "Out of " + Math.round(site.getRadius()) + "m range";
+                        String msg = "Denied: You are not at " + site.getName() + " (" + range + ").";
                         Toast.makeText(getContext(), msg, Toast.LENGTH_LONG).show();
                     }
                 }
@@ -230,50 +305,19 @@ public class EmployeeCheckInFragment extends Fragment {
 
             @Override
             public void onError(String errorMsg) {
+                if (binding == null) return;
                 binding.progressBar.setVisibility(View.GONE);
                 Toast.makeText(getContext(), "GPS Error: " + errorMsg, Toast.LENGTH_SHORT).show();
             }
         });
     }
 
-    private void performCheckIn(Location loc, float distance) {
-        String dateId = TimeUtils.getCurrentDateId();
-        String recordId = currentUser.getEmployeeId() + "_" + dateId;
-
-        // Build the attendance record object
-        AttendanceRecord record = new AttendanceRecord(
-                currentUser.getEmployeeId(), 
-                currentUser.getName(), 
-                dateId, 
-                TimeUtils.getCurrentTimestamp());
-
-        record.setRecordId(recordId);
-        record.setCheckInTime(TimeUtils.getCurrentTime());
-        record.setCheckInLat(loc.getLatitude());
-        record.setCheckInLng(loc.getLongitude());
-        record.setFingerprintVerified(true);
-        record.setLocationVerified(true); 
-        record.setDistanceMeters(distance);
-        record.setLocationName(assignedLocation.getName());
-
-        db.collection("attendance").document(recordId).set(record)
-                .addOnSuccessListener(aVoid -> Toast.makeText(getContext(), "Check-In Success!", Toast.LENGTH_SHORT).show());
-    }
-
-    private void performCheckOut(Location loc) {
-        if (todayRecord == null) return;
-
-        String checkOutTime = TimeUtils.getCurrentTime();
-        String totalHrs = TimeUtils.calculateDuration(todayRecord.getCheckInTime(), checkOutTime);
-
-        db.collection("attendance").document(todayRecord.getRecordId())
-                .update(
-                        "checkOutTime", checkOutTime,
-                        "checkOutLat", loc.getLatitude(),
-                        "checkOutLng", loc.getLongitude(),
-                        "totalHours", totalHrs
-                )
-                .addOnSuccessListener(aVoid -> Toast.makeText(getContext(), "Check-Out Success!", Toast.LENGTH_SHORT).show());
+    private void reportPunch(boolean stored, String action) {
+        if (stored) {
+            Toast.makeText(getContext(), action + " Success!", Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(getContext(), action + " failed: could not save on this device.", Toast.LENGTH_LONG).show();
+        }
     }
 
     @Override
@@ -281,4 +325,4 @@ public class EmployeeCheckInFragment extends Fragment {
         super.onDestroyView();
         binding = null;
     }
-}
\ No newline at end of file
+}
@@ -23,7 +23,10 @@ import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.inout.app.databinding.ActivityEmployeeDashboardBinding;
 import com.inout.app.models.User;
+import com.inout.app.utils.AttendanceMonthCache;
 import com.inout.app.utils.EncryptionHelper;
+import com.inout.app.utils.GeofenceHelper;
+import com.inout.app.utils.PunchQueue;
 
 /**
  * Main dashboard for Employees.
@@ -143,7 +146,8 @@ public class EmployeeDashboardActivity extends AppCompatActivity {
      * 4. Returns to the absolute landing page (Splash/Role Selection).
      */
     private void logout() {
-        // 1. Sign out from Firebase
+        // 1. Sign out from Firebase (pending punches stay with this user and are never replayed under another one)
+        PunchQueue.getInstance(this).signOut();
         mAuth.signOut();
 
         // 2. Configure and sign out from Google to allow picking a different Gmail next time
@@ -154,8 +158,11 @@ public class EmployeeDashboardActivity extends AppCompatActivity {
         GoogleSignInClient googleSignInClient = GoogleSignIn.getClient(this, gso);
 
         googleSignInClient.signOut().addOnCompleteListener(task -> {
-            // 3. Clear the stored Role (Employee) locally
+            // 3. Clear the stored Role (Employee) and cached assignment locally and stop office geofencing
             EncryptionHelper.getInstance(EmployeeDashboardActivity.this).clearUserRole();
+            EncryptionHelper.getInstance(EmployeeDashboardActivity.this).clearAssignmentCache();
+            new GeofenceHelper(EmployeeDashboardActivity.this).clear();
+            AttendanceMonthCache.getInstance().clear();
 
             // 4. Return to SplashActivity and clear the entire activity history stack
             Intent intent = new Intent(EmployeeDashboardActivity.this, SplashActivity.class);
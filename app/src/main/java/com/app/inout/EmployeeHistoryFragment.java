@@ -1,7 +1,6 @@
 package com.inout.app;
 
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,22 +9,26 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
-import com.inout.app.adapters.AttendanceAdapter;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.inout.app.adapters.MonthHistoryAdapter;
+import com.inout.app.adapters.StickyHeaderDecoration;
 import com.inout.app.databinding.FragmentEmployeeHistoryBinding;
 import com.inout.app.models.AttendanceRecord;
+import com.inout.app.models.HistorySection;
 import com.inout.app.models.User;
 import com.inout.app.utils.EncryptionHelper;
+import com.inout.app.utils.GooglePhotoUrl;
+import com.inout.app.utils.TimeUtils;
+import com.inout.app.viewmodels.EmployeeHistoryViewModel;
+import com.inout.app.views.MonthHeatmapView;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -33,18 +36,22 @@ import java.util.Locale;
 /**
  * Fragment for Employees to view their own personal attendance history.
  * FIXED: Displays real Company Name, calculates Day of Week, and enables Export.
+ * Profile and logs live in the activity-scoped EmployeeHistoryViewModel.
+ * The history is listed as month sections under sticky headers; the sections on screen are
+ * reported back so the view model loads them (and their neighbours) on demand.
  */
 public class EmployeeHistoryFragment extends Fragment {
 
     private static final String TAG = "EmployeeHistoryFrag";
     private FragmentEmployeeHistoryBinding binding;
-    
-    private FirebaseFirestore db;
-    private FirebaseAuth mAuth;
-    
-    private List<AttendanceRecord> historyLogs;
-    private AttendanceAdapter adapter;
-    private String employeeId;
+
+    private EmployeeHistoryViewModel viewModel;
+    private List<AttendanceRecord> historyLogs;     // Loaded months, kept for export
+    private MonthHistoryAdapter adapter;
+    private StickyHeaderDecoration headerDecoration;
+    private LinearLayoutManager layoutManager;
+    private String shownMonthId;                    // Month shown in the header and heatmap
+    private List<AttendanceRecord> shownRecords;
     private User currentUserProfile;
 
     @Override
@@ -57,17 +64,25 @@ public class EmployeeHistoryFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        db = FirebaseFirestore.getInstance();
-        mAuth = FirebaseAuth.getInstance();
+        viewModel = new ViewModelProvider(requireActivity()).get(EmployeeHistoryViewModel.class);
         historyLogs = new ArrayList<>();
 
         setupRecyclerView();
-        fetchEmployeeIdAndLoadLogs();
+        binding.progressBar.setVisibility(viewModel.isLoading() ? View.VISIBLE : View.GONE);
+
+        viewModel.getProfile().observe(getViewLifecycleOwner(), this::showProfile);
+        viewModel.getSections().observe(getViewLifecycleOwner(), this::showSections);
+        viewModel.getMessages().observe(getViewLifecycleOwner(), message -> {
+            if (message == null) return;
+            binding.progressBar.setVisibility(View.GONE);
+            Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+            viewModel.onMessageShown();
+        });
 
         // FIXED: Connected the Export button to logic
         binding.btnExportHistory.setOnClickListener(v -> {
             if (historyLogs != null && !historyLogs.isEmpty() && currentUserProfile != null) {
-                String fileName = "My_Attendance_" + new SimpleDateFormat("MMM_yyyy", Locale.US).format(new Date());
+                String fileName = "My_Attendance_" + exportRange();
                 CsvExportHelper.exportAttendanceToCsv(requireContext(), historyLogs, fileName);
             } else {
                 Toast.makeText(getContext(), "No history to export.", Toast.LENGTH_SHORT).show();
@@ -76,99 +91,144 @@ public class EmployeeHistoryFragment extends Fragment {
     }
 
     private void setupRecyclerView() {
-        binding.rvHistoryTable.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new AttendanceAdapter(historyLogs);
+        layoutManager = new LinearLayoutManager(getContext());
+        binding.rvHistoryTable.setLayoutManager(layoutManager);
+        adapter = new MonthHistoryAdapter();
         binding.rvHistoryTable.setAdapter(adapter);
+        headerDecoration = new StickyHeaderDecoration(adapter);
+        binding.rvHistoryTable.addItemDecoration(headerDecoration);
+        binding.rvHistoryTable.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                onVisibleRangeChanged();
+                // More months are listed only when the user scrolls down to the last one
+                if (dy > 0 && adapter.getItemCount() > 0
+                        && layoutManager.findLastVisibleItemPosition() == adapter.getItemCount() - 1) {
+                    viewModel.onEndReached();
+                }
+            }
+        });
     }
 
-    private void fetchEmployeeIdAndLoadLogs() {
-        if (mAuth.getCurrentUser() == null) return;
-        
-        String uid = mAuth.getCurrentUser().getUid();
-        binding.progressBar.setVisibility(View.VISIBLE);
-
-        db.collection("users").document(uid).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        currentUserProfile = documentSnapshot.toObject(User.class);
-                        if (currentUserProfile != null && currentUserProfile.getEmployeeId() != null) {
-                            this.employeeId = currentUserProfile.getEmployeeId();
-                            
-                            // FIXED: Set real data in the header
-                            binding.tvHistoryName.setText(currentUserProfile.getName());
-                            binding.tvHistoryId.setText("ID: " + this.employeeId);
-                            
-                            // FIXED: Set real Company Name from EncryptionHelper
-                            String company = EncryptionHelper.getInstance(requireContext()).getCompanyName();
-                            binding.tvHistoryCompany.setText(company);
-
-                            // Set current Month/Year
-                            binding.tvHistoryMonth.setText(new SimpleDateFormat("MMMM yyyy", Locale.US).format(new Date()));
-
-                            // Load Google Photo
-                            if (currentUserProfile.getPhotoUrl() != null) {
-                                Glide.with(this).load(currentUserProfile.getPhotoUrl()).circleCrop().into(binding.ivHistoryPhoto);
-                            }
-                            
-                            loadMyLogs();
-                        } else {
-                            binding.progressBar.setVisibility(View.GONE);
-                            binding.tvNoData.setText("Employee ID not assigned yet.");
-                            binding.tvNoData.setVisibility(View.VISIBLE);
-                        }
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    binding.progressBar.setVisibility(View.GONE);
-                    Toast.makeText(getContext(), "Failed to load profile.", Toast.LENGTH_SHORT).show();
-                });
+    private void showProfile(User profile) {
+        currentUserProfile = profile;
+        if (profile.getEmployeeId() == null) {
+            binding.progressBar.setVisibility(View.GONE);
+            binding.tvNoData.setText("Employee ID not assigned yet.");
+            binding.tvNoData.setVisibility(View.VISIBLE);
+            return;
+        }
+
+        // FIXED: Set real data in the header
+        binding.tvHistoryName.setText(profile.getName());
+        binding.tvHistoryId.setText("ID: " + profile.getEmployeeId());
+
+        // FIXED: Set real Company Name from EncryptionHelper
+        String company = EncryptionHelper.getInstance(requireContext()).getCompanyName();
+        binding.tvHistoryCompany.setText(company);
+
+        // Set current Month/Year (follows the top section once the history is shown)
+        if (shownMonthId == null) {
+            binding.tvHistoryMonth.setText(new SimpleDateFormat("MMMM yyyy", Locale.US).format(new Date()));
+        }
+
+        // Load Google Photo
+        if (profile.getPhotoUrl() != null) {
+            Glide.with(this).load(new GooglePhotoUrl(profile.getPhotoUrl()))
+                    .circleCrop()
+                    .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                    .into(binding.ivHistoryPhoto);
+        }
     }
 
-    private void loadMyLogs() {
-        db.collection("attendance")
-                .whereEqualTo("employeeId", employeeId)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .addSnapshotListener((value, error) -> {
-                    binding.progressBar.setVisibility(View.GONE);
-                    
-                    if (error != null) {
-                        Log.e(TAG, "Error listening for history logs", error);
-                        Toast.makeText(getContext(), "Error syncing logs.", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
-                    if (value != null) {
-                        historyLogs.clear();
-                        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-                        SimpleDateFormat dayFormat = new SimpleDateFormat("EEEE", Locale.US);
-
-                        for (DocumentSnapshot doc : value) {
-                            AttendanceRecord record = doc.toObject(AttendanceRecord.class);
-                            if (record != null) {
-                                // FIXED: Calculate and set the Day Name from the Date string
-                                try {
-                                    Date date = sdf.parse(record.getDate());
-                                    if (date != null) {
-                                        record.setDayOfWeek(dayFormat.format(date));
-                                    }
-                                } catch (Exception e) {
-                                    record.setDayOfWeek("Unknown");
-                                }
-                                historyLogs.add(record);
-                            }
-                        }
-                        
-                        adapter.notifyDataSetChanged();
-                        
-                        if (historyLogs.isEmpty()) {
-                            binding.tvNoData.setVisibility(View.VISIBLE);
-                            binding.tableHeader.getRoot().setVisibility(View.GONE);
-                        } else {
-                            binding.tvNoData.setVisibility(View.GONE);
-                            binding.tableHeader.getRoot().setVisibility(View.VISIBLE);
-                        }
-                    }
+    private void showSections(List<HistorySection> sections) {
+        if (sections == null) return;
+        if (!viewModel.isLoading()) binding.progressBar.setVisibility(View.GONE);
+
+        // Export covers the months loaded so far, newest first
+        List<AttendanceRecord> logs = new ArrayList<>();
+        for (HistorySection section : sections) {
+            if (section.isLoaded()) logs.addAll(section.getRecords());
+        }
+        historyLogs = logs;
+
+        adapter.submitSections(sections, () -> {
+            if (binding == null) return;
+            headerDecoration.invalidateHeader();
+            binding.rvHistoryTable.invalidateItemDecorations();
+            onVisibleRangeChanged();
+            // A short history that fits on screen cannot be scrolled to the end: list more once the
+            // months shown are in (after layout). Not for an empty history, which would walk back to the limit.
+            if (allLoaded(sections) && !logs.isEmpty()) {
+                binding.rvHistoryTable.post(() -> {
+                    if (binding != null && !binding.rvHistoryTable.canScrollVertically(1)) viewModel.onEndReached();
                 });
+            }
+        });
+
+        // Month headers are always listed; the empty state shows once the current month is in
+        boolean nothingRecorded = !sections.isEmpty() && sections.get(0).isLoaded() && historyLogs.isEmpty();
+        binding.tvNoData.setVisibility(nothingRecorded ? View.VISIBLE : View.GONE);
+        binding.tableHeader.getRoot().setVisibility(View.VISIBLE);
+    }
+
+    private static boolean allLoaded(List<HistorySection> sections) {
+        for (HistorySection section : sections) {
+            if (!section.isLoaded()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Months covered by the export, e.g. "Jan_2026-Mar_2026" (or "Mar_2026" for one month).
+     */
+    private String exportRange() {
+        List<HistorySection> sections = viewModel.getSections().getValue();
+        String newest = null, oldest = null;
+        if (sections != null) {
+            for (HistorySection section : sections) {
+                if (!section.isLoaded() || section.getRecords().isEmpty()) continue;
+                if (newest == null) newest = section.getMonthId();
+                oldest = section.getMonthId();
+            }
+        }
+        SimpleDateFormat format = new SimpleDateFormat("MMM_yyyy", Locale.US);
+        if (newest == null) return format.format(new Date());
+        String to = format.format(TimeUtils.getMonthStartMillis(newest, false));
+        if (newest.equals(oldest)) return to;
+        return format.format(TimeUtils.getMonthStartMillis(oldest, false)) + "-" + to;
+    }
+
+    /**
+     * Reports the sections on screen to the view model and points the header and heatmap
+     * at the month at the top of the list.
+     */
+    private void onVisibleRangeChanged() {
+        if (binding == null || adapter.getItemCount() == 0) return;
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) first = 0;
+        if (last == RecyclerView.NO_POSITION) last = first;
+        viewModel.onSectionsVisible(adapter.getSectionAt(first), adapter.getSectionAt(last));
+        showMonth(adapter.getMonthIdAt(first), adapter.getSectionAt(first));
+    }
+
+    private void showMonth(String monthId, int sectionIndex) {
+        List<HistorySection> sections = viewModel.getSections().getValue();
+        if (sections == null || sectionIndex >= sections.size()) return;
+        HistorySection section = sections.get(sectionIndex);
+        if (!section.isLoaded() || !section.getMonthId().equals(monthId)) return;
+        // Scrolling within the same month (and the same snapshot) changes nothing
+        if (monthId.equals(shownMonthId) && section.getRecords() == shownRecords) return;
+
+        if (!monthId.equals(shownMonthId)) {
+            binding.tvHistoryMonth.setText(new SimpleDateFormat("MMMM yyyy", Locale.US)
+                    .format(TimeUtils.getMonthStartMillis(monthId, false)));
+        }
+        shownMonthId = monthId;
+        shownRecords = section.getRecords();
+        // The heatmap repaints only the cells that changed
+        binding.monthHeatmap.setMonth(monthId, MonthHeatmapView.statusesFor(monthId, shownRecords));
     }
 
     @Override
@@ -176,4 +236,4 @@ public class EmployeeHistoryFragment extends Fragment {
         super.onDestroyView();
         binding = null;
     }
-}
\ No newline at end of file
+}
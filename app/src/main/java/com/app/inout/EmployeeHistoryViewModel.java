@@ -0,0 +1,231 @@
+package com.inout.app.viewmodels;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.inout.app.models.AttendanceRecord;
+import com.inout.app.models.HistorySection;
+import com.inout.app.models.User;
+import com.inout.app.utils.AttendanceMonthCache;
+import com.inout.app.utils.SnapshotExecutor;
+import com.inout.app.utils.TimeUtils;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Data of the employee history screen: the profile header and the attendance history,
+ * one section per month (newest first).
+ * Scoped to EmployeeDashboardActivity, so switching tabs or rotating re-renders the parsed
+ * sections without another profile read or listener attachment.
+ * Months come from the shared AttendanceMonthCache and are loaded only when their section
+ * gets near the viewport (see onSectionsVisible); the next older month is prefetched.
+ * Older months are listed only when the user scrolls to the end (see onEndReached).
+ * Records are sorted and day names derived on the SnapshotExecutor.
+ */
+public class EmployeeHistoryViewModel extends AndroidViewModel {
+
+    private static final String TAG = "EmployeeHistoryVM";
+
+    // Sections listed up front, added per scroll to the end, and the furthest back we go
+    private static final int INITIAL_MONTHS = 3;
+    private static final int MONTHS_PER_PAGE = 3;
+    private static final int MAX_MONTHS = 24;
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final FirebaseAuth mAuth = FirebaseAuth.getInstance();
+    private final AttendanceMonthCache monthCache;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MutableLiveData<User> profile = new MutableLiveData<>();
+    private final MutableLiveData<List<HistorySection>> sections = new MutableLiveData<>();
+    private final MutableLiveData<String> messages = new MutableLiveData<>();
+
+    private boolean profileRequested;
+    private String employeeId;
+
+    // Newest first; sections[i] is monthIds[i]
+    private final List<String> monthIds = new ArrayList<>();
+    private final Map<String, List<AttendanceRecord>> loadedMonths = new HashMap<>();
+    private final Map<String, AttendanceMonthCache.Registration> registrations = new HashMap<>();
+
+    public EmployeeHistoryViewModel(@NonNull Application application) {
+        super(application);
+        monthCache = AttendanceMonthCache.getInstance();
+        loadProfile();
+    }
+
+    /**
+     * Null until the profile has been read.
+     */
+    public LiveData<User> getProfile() {
+        return profile;
+    }
+
+    /**
+     * Month sections, newest first. Sections not loaded yet have null records.
+     * Null until the profile (and so the employee ID) is known.
+     */
+    public LiveData<List<HistorySection>> getSections() {
+        return sections;
+    }
+
+    public LiveData<String> getMessages() {
+        return messages;
+    }
+
+    public void onMessageShown() {
+        messages.setValue(null);
+    }
+
+    /**
+     * @return True while the profile or the current month is still outstanding.
+     */
+    public boolean isLoading() {
+        User user = profile.getValue();
+        if (user == null) return profileRequested;
+        return user.getEmployeeId() != null && !loadedMonths.containsKey(TimeUtils.getCurrentMonthId());
+    }
+
+    /**
+     * Called by the screen with the range of sections on screen. Loads them and their
+     * neighbours (the older one is the prefetch for scrolling on).
+     */
+    public void onSectionsVisible(int firstSection, int lastSection) {
+        if (employeeId == null || monthIds.isEmpty()) return;
+        int from = Math.max(0, firstSection - 1);
+        int to = Math.min(monthIds.size() - 1, lastSection + 1);
+        for (int i = from; i <= to; i++) loadMonth(monthIds.get(i));
+    }
+
+    /**
+     * Called by the screen when the user scrolls down to the last section: lists the next
+     * older months (their data loads once they come into view).
+     */
+    public void onEndReached() {
+        if (employeeId == null || monthIds.isEmpty() || monthIds.size() >= MAX_MONTHS) return;
+        appendMonths(MONTHS_PER_PAGE);
+        publish();
+    }
+
+    private void loadProfile() {
+        if (mAuth.getCurrentUser() == null) return;
+        profileRequested = true;
+
+        db.collection("users").document(mAuth.getCurrentUser().getUid()).get()
+                .addOnSuccessListener(documentSnapshot -> {
+                    profileRequested = false;
+                    if (!documentSnapshot.exists()) return;
+                    User user = documentSnapshot.toObject(User.class);
+                    if (user == null) return;
+                    profile.setValue(user);
+                    if (user.getEmployeeId() != null) startHistory(user.getEmployeeId());
+                })
+                .addOnFailureListener(e -> {
+                    profileRequested = false;
+                    Log.e(TAG, "Failed to load profile", e);
+                    messages.setValue("Failed to load profile.");
+                });
+    }
+
+    private void startHistory(String employeeId) {
+        this.employeeId = employeeId;
+        appendMonths(INITIAL_MONTHS);
+        publish();
+        // The current month and its predecessor before the list has even been laid out
+        onSectionsVisible(0, 0);
+    }
+
+    private void appendMonths(int count) {
+        String next = monthIds.isEmpty() ? TimeUtils.getCurrentMonthId()
+                : TimeUtils.addMonths(monthIds.get(monthIds.size() - 1), -1);
+        for (int i = 0; i < count && monthIds.size() < MAX_MONTHS; i++) {
+            monthIds.add(next);
+            next = TimeUtils.addMonths(next, -1);
+        }
+    }
+
+    private void loadMonth(String monthId) {
+        if (registrations.containsKey(monthId)) return;
+        // Observing keeps the current month live; closed months arrive once (often from memory)
+        registrations.put(monthId, monthCache.observe(employeeId, monthId, new AttendanceMonthCache.Callback() {
+            @Override
+            public void onMonthLoaded(Map<String, AttendanceRecord> byDate) {
+                SnapshotExecutor.get().execute(() -> {
+                    List<AttendanceRecord> records = sortedWithDayNames(byDate);
+                    mainHandler.post(() -> {
+                        loadedMonths.put(monthId, records);
+                        publish();
+                    });
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error loading history month " + monthId, e);
+                messages.setValue("Error syncing logs.");
+                // Allow a retry the next time the section comes into view
+                AttendanceMonthCache.Registration registration = registrations.remove(monthId);
+                if (registration != null) registration.remove();
+            }
+        }));
+    }
+
+    /**
+     * Runs on the SnapshotExecutor. Copies the cached records (they are shared) before
+     * setting the day name.
+     */
+    private static List<AttendanceRecord> sortedWithDayNames(Map<String, AttendanceRecord> byDate) {
+        List<AttendanceRecord> logs = new ArrayList<>(byDate.size());
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        SimpleDateFormat dayFormat = new SimpleDateFormat("EEEE", Locale.US);
+
+        for (AttendanceRecord cached : byDate.values()) {
+            AttendanceRecord record = new AttendanceRecord(cached);
+            // Calculate and set the Day Name from the Date string
+            try {
+                Date date = sdf.parse(record.getDate());
+                if (date != null) {
+                    record.setDayOfWeek(dayFormat.format(date));
+                }
+            } catch (Exception e) {
+                record.setDayOfWeek("Unknown");
+            }
+            logs.add(record);
+        }
+        // Newest first; date IDs sort chronologically
+        Collections.sort(logs, (a, b) -> b.getDate().compareTo(a.getDate()));
+        return Collections.unmodifiableList(logs);
+    }
+
+    private void publish() {
+        List<HistorySection> list = new ArrayList<>(monthIds.size());
+        for (String monthId : monthIds) {
+            list.add(new HistorySection(monthId, loadedMonths.get(monthId)));
+        }
+        sections.setValue(Collections.unmodifiableList(list));
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        for (AttendanceMonthCache.Registration registration : registrations.values()) registration.remove();
+        registrations.clear();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+}
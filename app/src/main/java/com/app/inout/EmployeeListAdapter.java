@@ -1,6 +1,7 @@
 package com.inout.app;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,26 +10,50 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+
+import com.inout.app.adapters.SelectionModel;
+import com.inout.app.models.TodayStatus;
 import com.inout.app.models.User;
+import com.inout.app.utils.GooglePhotoUrl;
+import com.inout.app.utils.TimeUtils;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Adapter to handle Multi-Selection, Bulk Actions, and Individual Approvals.
+ * Selection changes rebind only the tapped row, with SELECTION_PAYLOAD.
+ * Photos are fetched at the avatar's pixel size and preloaded ahead of scrolling
+ * (the adapter is the RecyclerViewPreloader's model provider).
  */
-public class EmployeeListAdapter extends RecyclerView.Adapter<EmployeeListAdapter.EmployeeViewHolder> {
+public class EmployeeListAdapter extends RecyclerView.Adapter<EmployeeListAdapter.EmployeeViewHolder>
+        implements ListPreloader.PreloadModelProvider<User> {
+
+    private static final float PHOTO_SIZE_DP = 60f;     // photo_container in item_employee.xml
 
     private final Context context;
     private final List<User> employeeList;
     private final OnEmployeeActionListener listener;
-    
-    // Set to store the UIDs of selected employees for bulk actions
-    private final Set<String> selectedUserIds = new HashSet<>();
+    private final RequestManager glide;
+    private final int photoSizePx;
+
+    // Selected employees by UID, for bulk actions
+    private final SelectionModel<User> selection = new SelectionModel<>(User::getUid);
+
+    // Colors resolved once instead of on every bind
+    private final int colorApproved;
+    private final int colorPending;
+    private final int colorOnDuty;
+    private final int colorOffDuty;
+    private final int colorNotIn;
 
     public interface OnEmployeeActionListener {
         void onApproveClicked(User user);
@@ -36,73 +61,60 @@ public class EmployeeListAdapter extends RecyclerView.Adapter<EmployeeListAdapte
         void onBulkActionRequested(List<User> selectedUsers);
     }
 
-    public EmployeeListAdapter(Context context, List<User> employeeList, OnEmployeeActionListener listener) {
+    public EmployeeListAdapter(Context context, RequestManager glide, List<User> employeeList, OnEmployeeActionListener listener) {
         this.context = context;
+        this.glide = glide;
         this.employeeList = employeeList;
         this.listener = listener;
+        photoSizePx = Math.round(PHOTO_SIZE_DP * context.getResources().getDisplayMetrics().density);
+        colorApproved = ContextCompat.getColor(context, android.R.color.holo_green_dark);
+        colorPending = ContextCompat.getColor(context, android.R.color.holo_orange_dark);
+        colorOnDuty = ContextCompat.getColor(context, R.color.status_green);
+        colorOffDuty = ContextCompat.getColor(context, R.color.dark_gray);
+        colorNotIn = ContextCompat.getColor(context, android.R.color.darker_gray);
+    }
+
+    /**
+     * Call after the backing list changed (instead of notifyDataSetChanged).
+     */
+    public void onListChanged() {
+        selection.setItems(employeeList);
+        notifyDataSetChanged();
     }
 
     @NonNull
     @Override
     public EmployeeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_employee, parent, false);
-        return new EmployeeViewHolder(view);
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull EmployeeViewHolder holder, int position) {
-        User user = employeeList.get(position);
-
-        holder.tvName.setText(user.getName());
-        holder.tvPhone.setText(user.getPhone() != null ? user.getPhone() : "No Phone");
-        
-        // Handle Status Display
-        if (user.isApproved()) {
-            String idSuffix = (user.getEmployeeId() != null) ? " (" + user.getEmployeeId() + ")" : "";
-            holder.tvStatus.setText("Status: Approved" + idSuffix);
-            holder.tvStatus.setTextColor(context.getResources().getColor(android.R.color.holo_green_dark));
-            holder.btnApprove.setVisibility(View.GONE);
-        } else {
-            holder.tvStatus.setText("Status: Pending Approval");
-            holder.tvStatus.setTextColor(context.getResources().getColor(android.R.color.holo_orange_dark));
-            holder.btnApprove.setVisibility(View.VISIBLE);
-        }
-        
-        // Multi-selection visual feedback
-        if (selectedUserIds.contains(user.getUid())) {
-            holder.viewOverlay.setVisibility(View.VISIBLE);
-            holder.ivCheck.setVisibility(View.VISIBLE);
-        } else {
-            holder.viewOverlay.setVisibility(View.GONE);
-            holder.ivCheck.setVisibility(View.GONE);
-        }
-
-        // Standard profile placeholder
-        holder.ivProfile.setImageResource(R.drawable.inout); 
+        EmployeeViewHolder holder = new EmployeeViewHolder(view);
 
         // Individual Approve Button Logic
         holder.btnApprove.setOnClickListener(v -> {
-            if (listener != null) {
+            User user = userAt(holder);
+            if (user != null && listener != null) {
                 listener.onApproveClicked(user);
             }
         });
 
         // Toggle Selection on tap
-        holder.itemView.setOnClickListener(v -> {
-            toggleSelection(user.getUid());
+        view.setOnClickListener(v -> {
+            User user = userAt(holder);
+            if (user != null) toggleSelection(user);
         });
 
         // LONG PRESS: Handle individual delete if nothing selected, or bulk action if selected
-        holder.itemView.setOnLongClickListener(v -> {
-            if (selectedUserIds.isEmpty()) {
+        view.setOnLongClickListener(v -> {
+            User user = userAt(holder);
+            if (user == null) return false;
+            if (selection.isEmpty()) {
                 // If nothing is selected, long press acts as an individual delete trigger
                 if (listener != null) {
                     listener.onDeleteClicked(user);
                 }
             } else {
                 // If items are selected, long press triggers bulk menu for the selection
-                if (!selectedUserIds.contains(user.getUid())) {
-                    toggleSelection(user.getUid());
+                if (!selection.isSelected(user)) {
+                    toggleSelection(user);
                 }
                 if (listener != null) {
                     listener.onBulkActionRequested(getSelectedUsers());
@@ -110,30 +122,144 @@ public class EmployeeListAdapter extends RecyclerView.Adapter<EmployeeListAdapte
             }
             return true;
         });
+        return holder;
     }
 
-    private void toggleSelection(String uid) {
-        if (selectedUserIds.contains(uid)) {
-            selectedUserIds.remove(uid);
+    private User userAt(EmployeeViewHolder holder) {
+        int position = holder.getAdapterPosition();
+        return position != RecyclerView.NO_POSITION ? employeeList.get(position) : null;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull EmployeeViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && onlySelection(payloads)) {
+            bindSelection(holder, employeeList.get(position));
         } else {
-            selectedUserIds.add(uid);
+            onBindViewHolder(holder, position);
         }
-        notifyDataSetChanged();
     }
 
-    public List<User> getSelectedUsers() {
-        List<User> selectedUsers = new ArrayList<>();
-        for (User user : employeeList) {
-            if (selectedUserIds.contains(user.getUid())) {
-                selectedUsers.add(user);
-            }
+    @Override
+    public void onBindViewHolder(@NonNull EmployeeViewHolder holder, int position) {
+        User user = employeeList.get(position);
+
+        holder.tvName.setText(user.getName());
+        holder.tvPhone.setText(user.getPhone() != null ? user.getPhone() : "No Phone");
+
+        // Handle Status Display
+        if (user.isApproved()) {
+            String idSuffix = (user.getEmployeeId() != null) ? " (" + user.getEmployeeId() + ")" : "";
+            holder.tvStatus.setText("Status: Approved" + idSuffix);
+            holder.tvStatus.setTextColor(colorApproved);
+            holder.btnApprove.setVisibility(View.GONE);
+            bindTodayStatus(holder.tvToday, user.getTodayStatus());
+        } else {
+            holder.tvStatus.setText("Status: Pending Approval");
+            holder.tvStatus.setTextColor(colorPending);
+            holder.btnApprove.setVisibility(View.VISIBLE);
+            holder.tvToday.setVisibility(View.GONE);
+        }
+
+        bindSelection(holder, user);
+
+        if (hasPhoto(user)) {
+            photoRequest(user).into(holder.ivProfile);
+        } else {
+            // Standard profile placeholder
+            glide.clear(holder.ivProfile);
+            holder.ivProfile.setImageResource(R.drawable.inout);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull EmployeeViewHolder holder) {
+        super.onViewRecycled(holder);
+        glide.clear(holder.ivProfile);
+    }
+
+    private static boolean hasPhoto(User user) {
+        return user.getPhotoUrl() != null && !user.getPhotoUrl().isEmpty();
+    }
+
+    /**
+     * Same request for binding and preloading, so preloaded thumbnails are cache hits.
+     */
+    private RequestBuilder<Drawable> photoRequest(User user) {
+        return glide.load(new GooglePhotoUrl(user.getPhotoUrl()))
+                .override(photoSizePx)
+                .centerCrop()
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                .placeholder(R.drawable.inout);
+    }
+
+    public int getPhotoSizePx() {
+        return photoSizePx;
+    }
+
+    @NonNull
+    @Override
+    public List<User> getPreloadItems(int position) {
+        if (position >= employeeList.size()) return Collections.emptyList();
+        User user = employeeList.get(position);
+        return hasPhoto(user) ? Collections.singletonList(user) : Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull User user) {
+        return photoRequest(user);
+    }
+
+    /**
+     * Multi-selection visual feedback
+     */
+    private void bindSelection(EmployeeViewHolder holder, User user) {
+        int visibility = selection.isSelected(user) ? View.VISIBLE : View.GONE;
+        holder.viewOverlay.setVisibility(visibility);
+        holder.ivCheck.setVisibility(visibility);
+    }
+
+    private static boolean onlySelection(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != SelectionModel.SELECTION_PAYLOAD) return false;
         }
-        return selectedUsers;
+        return true;
+    }
+
+    /**
+     * Live duty state straight from the user document; no attendance query per row.
+     */
+    private void bindTodayStatus(TextView view, TodayStatus status) {
+        view.setVisibility(View.VISIBLE);
+        if (status == null || !status.isForDate(TimeUtils.getCurrentDateId())) {
+            view.setText("Not checked in today");
+            view.setTextColor(colorNotIn);
+        } else if (status.isCheckedIn()) {
+            String site = status.getLocationName() != null ? " at " + status.getLocationName() : "";
+            view.setText("On duty since " + status.getCheckInTime() + site);
+            view.setTextColor(colorOnDuty);
+        } else {
+            view.setText("Off duty • " + TimeUtils.formatDuration(status.getTotalMinutes()) + " today");
+            view.setTextColor(colorOffDuty);
+        }
+    }
+
+    private void toggleSelection(User user) {
+        int position = selection.toggle(user);
+        if (position >= 0) notifyItemChanged(position, SelectionModel.SELECTION_PAYLOAD);
+    }
+
+    /**
+     * Selected employees in selection order.
+     */
+    public List<User> getSelectedUsers() {
+        return selection.getSelected();
     }
 
     public void clearSelection() {
-        selectedUserIds.clear();
-        notifyDataSetChanged();
+        for (int position : selection.clear()) {
+            notifyItemChanged(position, SelectionModel.SELECTION_PAYLOAD);
+        }
     }
 
     @Override
@@ -143,7 +269,7 @@ public class EmployeeListAdapter extends RecyclerView.Adapter<EmployeeListAdapte
 
     static class EmployeeViewHolder extends RecyclerView.ViewHolder {
         ImageView ivProfile, ivCheck;
-        TextView tvName, tvPhone, tvStatus;
+        TextView tvName, tvPhone, tvStatus, tvToday;
         View viewOverlay;
         Button btnApprove;
 
@@ -154,8 +280,9 @@ public class EmployeeListAdapter extends RecyclerView.Adapter<EmployeeListAdapte
             tvName = itemView.findViewById(R.id.tv_employee_name);
             tvPhone = itemView.findViewById(R.id.tv_employee_phone);
             tvStatus = itemView.findViewById(R.id.tv_employee_status);
+            tvToday = itemView.findViewById(R.id.tv_today_status);
             viewOverlay = itemView.findViewById(R.id.view_selected_overlay);
             btnApprove = itemView.findViewById(R.id.btn_approve_employee);
         }
     }
-}
\ No newline at end of file
+}
@@ -34,6 +34,10 @@ public class EncryptionHelper {
     private static final String KEY_COMPANY_NAME = "key_company_name";
     private static final String KEY_PROJECT_ID = "key_project_id";
     private static final String KEY_IS_SETUP_DONE = "key_is_setup_done";
+    private static final String KEY_GEOFENCE_INSIDE_PREFIX = "key_geofence_inside_";
+    private static final String KEY_GEOFENCE_TIME_PREFIX = "key_geofence_time_";
+    private static final String KEY_ASSIGNMENT_CACHE = "key_assignment_cache";
+    private static final String KEY_BACKGROUND_LOCATION_ASKED = "key_background_location_asked";
 
     // Hardcoded Key for QR Code Encryption (Shared between Admin & Employee logic)
     private static final String QR_ENCRYPTION_KEY = "InOutAppSuperSecretKey2026";
@@ -105,6 +109,53 @@ public class EncryptionHelper {
         return sharedPreferences.getBoolean(KEY_IS_SETUP_DONE, false);
     }
     
+    /**
+     * Stores the last geofence transition reported by the platform for an office.
+     */
+    public void saveGeofenceState(String siteId, boolean inside, long timestamp) {
+        sharedPreferences.edit()
+                .putBoolean(KEY_GEOFENCE_INSIDE_PREFIX + siteId, inside)
+                .putLong(KEY_GEOFENCE_TIME_PREFIX + siteId, timestamp)
+                .apply();
+    }
+
+    public boolean isInsideGeofence(String siteId) {
+        return sharedPreferences.getBoolean(KEY_GEOFENCE_INSIDE_PREFIX + siteId, false);
+    }
+
+    /**
+     * @return Time of the last transition for the office, or 0 if none was ever reported.
+     */
+    public long getGeofenceStateTime(String siteId) {
+        return sharedPreferences.getLong(KEY_GEOFENCE_TIME_PREFIX + siteId, 0);
+    }
+
+    /**
+     * Stores the serialized office assignment of the signed-in employee (see AssignmentCache).
+     */
+    public void saveAssignmentCache(String json) {
+        sharedPreferences.edit().putString(KEY_ASSIGNMENT_CACHE, json).apply();
+    }
+
+    public String getAssignmentCache() {
+        return sharedPreferences.getString(KEY_ASSIGNMENT_CACHE, null);
+    }
+
+    public void clearAssignmentCache() {
+        sharedPreferences.edit().remove(KEY_ASSIGNMENT_CACHE).apply();
+    }
+
+    /**
+     * The "Allow all the time" rationale is shown once; afterwards it can be granted in Settings.
+     */
+    public void markBackgroundLocationAsked() {
+        sharedPreferences.edit().putBoolean(KEY_BACKGROUND_LOCATION_ASKED, true).apply();
+    }
+
+    public boolean wasBackgroundLocationAsked() {
+        return sharedPreferences.getBoolean(KEY_BACKGROUND_LOCATION_ASKED, false);
+    }
+
     public void clearAllData() {
         sharedPreferences.edit().clear().apply();
     }
@@ -0,0 +1,78 @@
+package com.inout.app.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Delivers at most one value per frame to a consumer.
+ * Snapshot listeners submit every delivery (or the list mapped from it); if several arrive
+ * before the next frame (a bulk approval, everyone checking in at 9:00), only the newest is
+ * handed on, right before that frame is drawn. Snapshots are complete states, so the newest
+ * one already contains the intermediate ones.
+ * submit() and flush() are main thread only (Choreographer of the main looper); use post()
+ * from background threads.
+ */
+public final class FrameCoalescer<T> {
+
+    public interface Consumer<T> {
+        void accept(T value);
+    }
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private final Consumer<T> consumer;
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> flush();
+
+    private T pending;
+    private boolean scheduled;
+    private volatile boolean cancelled;
+
+    public FrameCoalescer(Consumer<T> consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Replaces any value still waiting for the next frame.
+     */
+    public void submit(T value) {
+        if (cancelled) return;
+        pending = value;
+        if (!scheduled) {
+            scheduled = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * Same as submit(), from any thread (e.g., a SnapshotExecutor callback).
+     */
+    public void post(T value) {
+        MAIN.post(() -> submit(value));
+    }
+
+    /**
+     * Delivers the waiting value now, if any (e.g., before an error is reported).
+     */
+    public void flush() {
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+            scheduled = false;
+        }
+        T value = pending;
+        pending = null;
+        if (value != null) consumer.accept(value);
+    }
+
+    /**
+     * Drops the waiting value and ignores later ones; call when the listener is removed.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (scheduled) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+            scheduled = false;
+        }
+        pending = null;
+    }
+}
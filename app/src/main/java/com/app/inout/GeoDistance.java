@@ -0,0 +1,145 @@
+package com.inout.app.utils;
+
+import android.location.Location;
+
+import java.util.Arrays;
+
+/**
+ * Fast distance math for radius checks and bulk analysis.
+ * 1. Equirectangular approximation for short ranges, haversine beyond that.
+ * 2. A conservative error bound around the fast result; only when the radius falls
+ *    inside that band is the precise ellipsoid method (Location.distanceBetween) used.
+ * 3. Batch variants over primitive arrays (no Location objects, no allocations per point).
+ */
+public final class GeoDistance {
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    // Beyond this, the equirectangular error grows quickly; haversine is used instead
+    private static final double EQUIRECTANGULAR_MAX_METERS = 50000;
+
+    // Sphere vs. WGS84 ellipsoid (max ~0.56%) plus approximation error, rounded up
+    private static final double RELATIVE_ERROR = 0.007;
+    private static final double ABSOLUTE_ERROR_METERS = 0.5;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Fast distance in meters. Accurate to within errorBound() of the ellipsoid distance.
+     */
+    public static double fastDistance(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1), phi2 = Math.toRadians(lat2);
+        double dLambda = Math.toRadians(normalizeLngDelta(lng2 - lng1));
+        double x = dLambda * Math.cos((phi1 + phi2) / 2);
+        double y = phi2 - phi1;
+        double d = Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+        return d <= EQUIRECTANGULAR_MAX_METERS ? d : haversine(lat1, lng1, lat2, lng2);
+    }
+
+    /**
+     * Great-circle distance on the mean-radius sphere.
+     */
+    public static double haversine(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1), phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lng2 - lng1);
+        double sinPhi = Math.sin(dPhi / 2), sinLambda = Math.sin(dLambda / 2);
+        double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Precise ellipsoid distance (Vincenty, via the platform).
+     */
+    public static float preciseDistance(double lat1, double lng1, double lat2, double lng2) {
+        float[] results = new float[1];
+        Location.distanceBetween(lat1, lng1, lat2, lng2, results);
+        return results[0];
+    }
+
+    /**
+     * @return Maximum difference (meters) between fastDistance() and the ellipsoid distance.
+     */
+    public static double errorBound(double fastDistanceMeters) {
+        return fastDistanceMeters * RELATIVE_ERROR + ABSOLUTE_ERROR_METERS;
+    }
+
+    /**
+     * Radius check that only pays for the precise method near the boundary.
+     */
+    public static boolean isWithinRadius(double lat, double lng, double targetLat, double targetLng, double radiusMeters) {
+        double d = fastDistance(lat, lng, targetLat, targetLng);
+        double bound = errorBound(d);
+        if (d + bound <= radiusMeters) return true;
+        if (d - bound > radiusMeters) return false;
+        return preciseDistance(lat, lng, targetLat, targetLng) <= radiusMeters;
+    }
+
+    /**
+     * Batch fast distances from one origin to many points.
+     * Origin trigonometry is computed once; results are written into 'out'.
+     */
+    public static void fastDistances(double originLat, double originLng,
+                                     double[] lats, double[] lngs, float[] out) {
+        double phi0 = Math.toRadians(originLat);
+        for (int i = 0; i < lats.length; i++) {
+            double phi = Math.toRadians(lats[i]);
+            double x = Math.toRadians(normalizeLngDelta(lngs[i] - originLng)) * Math.cos((phi0 + phi) / 2);
+            double y = phi - phi0;
+            double d = Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+            if (d > EQUIRECTANGULAR_MAX_METERS) {
+                d = haversine(originLat, originLng, lats[i], lngs[i]);
+            }
+            out[i] = (float) d;
+        }
+    }
+
+    /**
+     * Batch radius check: points[i] is inside when its distance to the origin is <= radius.
+     * Uses the precise method only for points inside the error band around the radius.
+     *
+     * @return Number of points inside the radius.
+     */
+    public static int withinRadius(double originLat, double originLng, double radiusMeters,
+                                   double[] lats, double[] lngs, boolean[] out) {
+        float[] radii = new float[lats.length];
+        Arrays.fill(radii, (float) radiusMeters);
+        return withinRadius(originLat, originLng, lats, lngs, radii, out);
+    }
+
+    /**
+     * Same as above with a radius per point (sites of different sizes).
+     *
+     * @return Number of points inside their radius.
+     */
+    public static int withinRadius(double originLat, double originLng,
+                                   double[] lats, double[] lngs, float[] radii, boolean[] out) {
+        float[] distances = new float[lats.length];
+        fastDistances(originLat, originLng, lats, lngs, distances);
+
+        int count = 0;
+        for (int i = 0; i < lats.length; i++) {
+            double d = distances[i];
+            double radiusMeters = radii[i];
+            double bound = errorBound(d);
+            boolean inside;
+            if (d + bound <= radiusMeters) {
+                inside = true;
+            } else if (d - bound > radiusMeters) {
+                inside = false;
+            } else {
+                inside = preciseDistance(originLat, originLng, lats[i], lngs[i]) <= radiusMeters;
+            }
+            out[i] = inside;
+            if (inside) count++;
+        }
+        return count;
+    }
+
+    private static double normalizeLngDelta(double delta) {
+        if (delta > 180) return delta - 360;
+        if (delta < -180) return delta + 360;
+        return delta;
+    }
+}
@@ -0,0 +1,41 @@
+package com.inout.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.inout.app.utils.AssignmentCache;
+import com.inout.app.utils.EncryptionHelper;
+import com.inout.app.utils.GeofenceHelper;
+
+/**
+ * Platform geofences are dropped on reboot. Registers the signed-in employee's offices again
+ * from the cached assignment, so arrival detection works before the app is next opened.
+ */
+public class GeofenceBootReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "GeofenceBootReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) return;
+        if (!"employee".equals(EncryptionHelper.getInstance(context).getUserRole())) return;
+        if (FirebaseApp.getApps(context).isEmpty()) return;
+
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) return;
+
+        AssignmentCache.Entry cached = new AssignmentCache(context).load(user.getUid());
+        if (cached == null) return;
+
+        Log.d(TAG, "Re-registering " + cached.getSites().size() + " office geofence(s) after reboot.");
+        // Keeps the process alive until the asynchronous registration has finished
+        PendingResult pendingResult = goAsync();
+        new GeofenceHelper(context).registerSites(cached.getSites())
+                .addOnCompleteListener(done -> pendingResult.finish());
+    }
+}
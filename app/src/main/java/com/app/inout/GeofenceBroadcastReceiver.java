@@ -0,0 +1,47 @@
+package com.inout.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import com.google.android.gms.location.Geofence;
+import com.google.android.gms.location.GeofenceStatusCodes;
+import com.google.android.gms.location.GeofencingEvent;
+import com.inout.app.utils.EncryptionHelper;
+
+/**
+ * Receives enter/exit transitions for the office geofences registered by GeofenceHelper
+ * and stores the latest state locally for the Check-In screen.
+ */
+public class GeofenceBroadcastReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "GeofenceReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        GeofencingEvent event = GeofencingEvent.fromIntent(intent);
+        if (event == null) return;
+
+        if (event.hasError()) {
+            Log.e(TAG, "Geofence error: " + GeofenceStatusCodes.getStatusCodeString(event.getErrorCode()));
+            return;
+        }
+
+        int transition = event.getGeofenceTransition();
+        if (transition != Geofence.GEOFENCE_TRANSITION_ENTER && transition != Geofence.GEOFENCE_TRANSITION_EXIT) {
+            return;
+        }
+
+        boolean inside = transition == Geofence.GEOFENCE_TRANSITION_ENTER;
+        EncryptionHelper prefs = EncryptionHelper.getInstance(context);
+        long now = System.currentTimeMillis();
+
+        if (event.getTriggeringGeofences() != null) {
+            for (Geofence geofence : event.getTriggeringGeofences()) {
+                prefs.saveGeofenceState(geofence.getRequestId(), inside, now);
+                Log.d(TAG, (inside ? "Entered " : "Exited ") + geofence.getRequestId());
+            }
+        }
+    }
+}
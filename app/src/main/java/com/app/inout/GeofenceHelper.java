@@ -0,0 +1,152 @@
+package com.inout.app.utils;
+
+import android.Manifest;
+import android.annotation.SuppressLint;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import com.google.android.gms.location.Geofence;
+import com.google.android.gms.location.GeofencingClient;
+import com.google.android.gms.location.GeofencingRequest;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.inout.app.GeofenceBroadcastReceiver;
+import com.inout.app.models.CompanyConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers platform geofences around the employee's assigned offices.
+ * The OS tracks enter/exit cheaply in the background, so the check-in screen already
+ * knows whether the employee is on site when it opens and only needs a confirmation fix.
+ */
+public class GeofenceHelper {
+
+    private static final String TAG = "GeofenceHelper";
+
+    public static final int STATE_UNKNOWN = 0;
+    public static final int STATE_INSIDE = 1;
+    public static final int STATE_OUTSIDE = 2;
+
+    // Android allows at most 100 geofences per app
+    private static final int MAX_GEOFENCES = 100;
+
+    // Same sites are not re-registered on every profile snapshot
+    private static String lastRegisteredSignature;
+
+    private final Context context;
+    private final GeofencingClient geofencingClient;
+
+    public GeofenceHelper(Context context) {
+        this.context = context.getApplicationContext();
+        this.geofencingClient = LocationServices.getGeofencingClient(this.context);
+    }
+
+    /**
+     * Registers (or replaces) the geofences for the given offices (the first 100).
+     * Silently skipped when background location is not granted; the app then falls back
+     * to the normal GPS check at tap time. Cheap to call again: unchanged sites are skipped.
+     * Platform geofences do not survive a reboot; GeofenceBootReceiver registers them again.
+     *
+     * @return Completes once the registration has finished (or failed, or was skipped).
+     */
+    @SuppressLint("MissingPermission")
+    public Task<Void> registerSites(List<CompanyConfig> sites) {
+        if (sites == null || sites.isEmpty() || !hasPermissions()) return Tasks.forResult(null);
+        if (sites.size() > MAX_GEOFENCES) sites = sites.subList(0, MAX_GEOFENCES);
+
+        String signature = buildSignature(sites);
+        if (signature.equals(lastRegisteredSignature)) return Tasks.forResult(null);
+
+        List<Geofence> geofences = new ArrayList<>();
+        for (CompanyConfig site : sites) {
+            if (site.getId() == null) continue;
+            geofences.add(new Geofence.Builder()
+                    .setRequestId(site.getId())
+                    .setCircularRegion(site.getLatitude(), site.getLongitude(), site.getRadius())
+                    .setExpirationDuration(Geofence.NEVER_EXPIRE)
+                    .setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER | Geofence.GEOFENCE_TRANSITION_EXIT)
+                    .build());
+        }
+        if (geofences.isEmpty()) return Tasks.forResult(null);
+
+        GeofencingRequest request = new GeofencingRequest.Builder()
+                .setInitialTrigger(GeofencingRequest.INITIAL_TRIGGER_ENTER | GeofencingRequest.INITIAL_TRIGGER_EXIT)
+                .addGeofences(geofences)
+                .build();
+
+        // Replace whatever was registered before (assignment may have changed)
+        return geofencingClient.removeGeofences(getPendingIntent()).continueWithTask(removed ->
+                geofencingClient.addGeofences(request, getPendingIntent())
+                        .addOnSuccessListener(aVoid -> {
+                            lastRegisteredSignature = signature;
+                            Log.d(TAG, "Registered " + geofences.size() + " geofence(s).");
+                        })
+                        .addOnFailureListener(e -> Log.e(TAG, "Geofence registration failed", e)));
+    }
+
+    /**
+     * Removes all geofences of this app (e.g. on logout).
+     */
+    public void clear() {
+        geofencingClient.removeGeofences(getPendingIntent());
+        lastRegisteredSignature = null;
+    }
+
+    /**
+     * @return STATE_INSIDE / STATE_OUTSIDE from today's last platform transition, or STATE_UNKNOWN.
+     * An exit overwrites the inside state; a transition from an earlier day is not trusted
+     * (e.g. phone was off overnight, or the employee left without an exit being reported).
+     */
+    public int getState(String siteId) {
+        if (siteId == null) return STATE_UNKNOWN;
+        EncryptionHelper prefs = EncryptionHelper.getInstance(context);
+        long stateTime = prefs.getGeofenceStateTime(siteId);
+        if (stateTime == 0 || !TimeUtils.formatTimestampToDate(stateTime).equals(TimeUtils.getCurrentDateId())) {
+            return STATE_UNKNOWN;
+        }
+        return prefs.isInsideGeofence(siteId) ? STATE_INSIDE : STATE_OUTSIDE;
+    }
+
+    private PendingIntent getPendingIntent() {
+        Intent intent = new Intent(context, GeofenceBroadcastReceiver.class);
+        // Geofencing fills in the intent extras, so it must be mutable on Android 12+
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            flags |= PendingIntent.FLAG_MUTABLE;
+        }
+        return PendingIntent.getBroadcast(context, 0, intent, flags);
+    }
+
+    private boolean hasPermissions() {
+        if (ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
+            return false;
+        }
+        // Android 10+ only delivers geofence events with background location access
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_BACKGROUND_LOCATION) != PackageManager.PERMISSION_GRANTED) {
+            Log.d(TAG, "Background location not granted, geofencing disabled.");
+            return false;
+        }
+        return true;
+    }
+
+    private static String buildSignature(List<CompanyConfig> sites) {
+        StringBuilder sb = new StringBuilder();
+        for (CompanyConfig site : sites) {
+            sb.append(site.getId()).append(':')
+                    .append(site.getLatitude()).append(',')
+                    .append(site.getLongitude()).append(',')
+                    .append(site.getRadius()).append(';');
+        }
+        return sb.toString();
+    }
+}
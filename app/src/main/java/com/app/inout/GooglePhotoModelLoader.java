@@ -0,0 +1,53 @@
+package com.inout.app.utils;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelCache;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.BaseGlideUrlLoader;
+
+import java.io.InputStream;
+
+/**
+ * Loads a GooglePhotoUrl at the pixel size of the target, so each view size is one small
+ * download (and one disk cache entry) instead of the full-size photo.
+ */
+public class GooglePhotoModelLoader extends BaseGlideUrlLoader<GooglePhotoUrl> {
+
+    private GooglePhotoModelLoader(ModelLoader<GlideUrl, InputStream> urlLoader,
+                                   ModelCache<GooglePhotoUrl, GlideUrl> modelCache) {
+        super(urlLoader, modelCache);
+    }
+
+    @Override
+    protected String getUrl(GooglePhotoUrl model, int width, int height, Options options) {
+        // SIZE_ORIGINAL (negative) keeps the URL as is
+        return GooglePhotoUrl.sized(model.getUrl(), Math.max(width, height));
+    }
+
+    @Override
+    public boolean handles(@NonNull GooglePhotoUrl model) {
+        return true;
+    }
+
+    public static class Factory implements ModelLoaderFactory<GooglePhotoUrl, InputStream> {
+
+        // Rewritten URLs per model and size, so the regexes run once per photo and size
+        private final ModelCache<GooglePhotoUrl, GlideUrl> modelCache = new ModelCache<>(500);
+
+        @NonNull
+        @Override
+        public ModelLoader<GooglePhotoUrl, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new GooglePhotoModelLoader(multiFactory.build(GlideUrl.class, InputStream.class), modelCache);
+        }
+
+        @Override
+        public void teardown() {
+            modelCache.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.inout.app.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Glide model for a Google account photo. GooglePhotoModelLoader turns it into a URL asking
+ * Google for exactly the target size, instead of downloading the full photo and scaling it down.
+ * Use it for every photoUrl that comes from Google Sign-In.
+ */
+public final class GooglePhotoUrl {
+
+    // ".../photo=s96-c" (current) and ".../s96-c/photo.jpg" (legacy) forms
+    private static final Pattern SIZE_SUFFIX = Pattern.compile("=s\\d+(-[a-z0-9-]+)?$");
+    private static final Pattern SIZE_SEGMENT = Pattern.compile("/s\\d+(-c)?/");
+    private static final Pattern SIZE_QUERY = Pattern.compile("([?&]sz=)\\d+");
+
+    private final String url;
+
+    public GooglePhotoUrl(@NonNull String url) {
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return The URL asking for a square photo of {@code sizePx}; other URLs unchanged.
+     */
+    public static String sized(String url, int sizePx) {
+        if (sizePx <= 0) return url;
+        Matcher matcher = SIZE_SUFFIX.matcher(url);
+        if (matcher.find()) return matcher.replaceFirst("=s" + sizePx + "-c");
+        matcher = SIZE_SEGMENT.matcher(url);
+        if (matcher.find()) return matcher.replaceFirst("/s" + sizePx + "-c/");
+        matcher = SIZE_QUERY.matcher(url);
+        if (matcher.find()) return matcher.replaceFirst("$1" + sizePx);
+        // Plain googleusercontent photo without size options
+        if (url.contains("googleusercontent.com/") && !url.contains("?") && !url.contains("=")) {
+            return url + "=s" + sizePx + "-c";
+        }
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GooglePhotoUrl && url.equals(((GooglePhotoUrl) o).url);
+    }
+
+    @Override
+    public int hashCode() {
+        return url.hashCode();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return url;
+    }
+}
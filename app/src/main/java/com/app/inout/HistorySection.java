@@ -0,0 +1,33 @@
+package com.inout.app.models;
+
+import java.util.List;
+
+/**
+ * One month of the employee history: its records (newest first, day names filled in),
+ * or null records while the month has not been loaded yet. Immutable.
+ */
+public final class HistorySection {
+
+    private final String monthId;
+    private final List<AttendanceRecord> records;
+
+    public HistorySection(String monthId, List<AttendanceRecord> records) {
+        this.monthId = monthId;
+        this.records = records;
+    }
+
+    public String getMonthId() {
+        return monthId;
+    }
+
+    /**
+     * @return Unmodifiable list, or null while loading.
+     */
+    public List<AttendanceRecord> getRecords() {
+        return records;
+    }
+
+    public boolean isLoaded() {
+        return records != null;
+    }
+}
@@ -3,6 +3,7 @@ package com.inout.app;
 import android.app.Application;
 
 import com.inout.app.utils.FirebaseManager;
+import com.inout.app.utils.PunchQueue;
 
 /**
  * The custom Application class for InOut.
@@ -20,5 +21,8 @@ public class InOutApplication extends Application {
         // This manager will attempt to load a stored Firebase configuration (encrypted)
         // if one exists, allowing dynamic project switching.
         FirebaseManager.initialize(this);
+
+        // Replay punches saved while offline (or before the app was killed) once a network is available.
+        PunchQueue.getInstance(this).start();
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.inout.app;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.module.AppGlideModule;
+import com.inout.app.utils.GooglePhotoModelLoader;
+import com.inout.app.utils.GooglePhotoUrl;
+
+import java.io.InputStream;
+
+/**
+ * App-wide Glide setup.
+ * - GooglePhotoUrl models are fetched at the target size (GooglePhotoModelLoader).
+ * - Photos are small and few, so a modest disk cache keeps every employee's thumbnails.
+ */
+@GlideModule
+public final class InOutGlideModule extends AppGlideModule {
+
+    private static final long DISK_CACHE_BYTES = 50L * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, "photo_cache", DISK_CACHE_BYTES));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(GooglePhotoUrl.class, InputStream.class, new GooglePhotoModelLoader.Factory());
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        // No libraries register Glide modules through the manifest
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.inout.app.utils;
+
+import android.location.Location;
+import android.os.SystemClock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether an already available GPS fix is good enough for a check-in,
+ * so the app does not have to wait for a brand new one.
+ * A fix is accepted only if it is recent, not mocked, and its accuracy circle
+ * is small compared to the office radius.
+ */
+public class LocationAcceptancePolicy {
+
+    // A fix older than this is treated as stale (employee may have walked away)
+    public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    // Accuracy must be at most half the office radius (50m for the default 100m radius)
+    public static final float DEFAULT_ACCURACY_FRACTION = 0.5f;
+
+    private final long maxAgeMillis;
+    private final float maxAccuracyFraction;
+
+    public LocationAcceptancePolicy(long maxAgeMillis, float maxAccuracyFraction) {
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxAccuracyFraction = maxAccuracyFraction;
+    }
+
+    public static LocationAcceptancePolicy defaultPolicy() {
+        return new LocationAcceptancePolicy(DEFAULT_MAX_AGE_MILLIS, DEFAULT_ACCURACY_FRACTION);
+    }
+
+    /**
+     * Used when the platform geofence already reports the employee inside the office.
+     * The fix is then only a confirmation, so an older or coarser one is fine.
+     */
+    public static LocationAcceptancePolicy geofenceConfirmationPolicy() {
+        return new LocationAcceptancePolicy(TimeUnit.MINUTES.toMillis(2), 1.0f);
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    /**
+     * @return The largest accuracy radius (meters) accepted for an office of the given radius.
+     */
+    public float getMaxAccuracyMeters(float siteRadiusMeters) {
+        return siteRadiusMeters * maxAccuracyFraction;
+    }
+
+    /**
+     * @return true if the fix can be used for a site with the given radius without a fresh request.
+     */
+    @SuppressWarnings("deprecation") // isFromMockProvider is the only option below API 31
+    public boolean isAcceptable(Location location, float siteRadiusMeters) {
+        if (location == null) return false;
+
+        // Spoofed locations are never accepted from the cache
+        if (location.isFromMockProvider()) return false;
+
+        if (getAgeMillis(location) > maxAgeMillis) return false;
+
+        return location.hasAccuracy() && location.getAccuracy() <= getMaxAccuracyMeters(siteRadiusMeters);
+    }
+
+    /**
+     * Age is measured on the monotonic clock so that wall-clock changes cannot make an old fix look fresh.
+     */
+    public static long getAgeMillis(Location location) {
+        long ageNanos = SystemClock.elapsedRealtimeNanos() - location.getElapsedRealtimeNanos();
+        return TimeUnit.NANOSECONDS.toMillis(ageNanos);
+    }
+}
@@ -0,0 +1,193 @@
+package com.inout.app.utils;
+
+import android.location.Location;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.gms.location.Priority;
+import com.inout.app.models.CompanyConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bounded attempt to get a usable GPS fix.
+ * 1. Starts with balanced (network/wifi) priority, escalates to high accuracy (GPS) if needed.
+ * 2. Fuses the samples it receives, weighted by their accuracy.
+ * 3. Stops as soon as the in-radius decision cannot change anymore, or at the hard deadline.
+ * Updates come from the shared LocationSessionManager and the subscription is ALWAYS
+ * removed when the attempt ends, so no GPS session is leaked.
+ */
+public class LocationAcquisition {
+
+    private static final String TAG = "LocationAcquisition";
+
+    public static final long DEFAULT_DEADLINE_MS = 15000;
+    public static final long DEFAULT_ESCALATE_AFTER_MS = 4000;
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+
+    // Without a target site we stop once the fix is this accurate (Admin GPS capture)
+    private static final float TARGET_FREE_ACCURACY_METERS = 20f;
+
+    // The shared session may hand over a fix from before this attempt; only recent ones count
+    private static final long MAX_PRIOR_SAMPLE_AGE_MS = 5000;
+
+    // Samples this much worse than the best one are ignored by the fusion
+    private static final float OUTLIER_ACCURACY_FACTOR = 4f;
+
+    private final LocationSessionManager sessionManager;
+    private final CompanyConfig site;
+    private final long deadlineMs;
+    private final long escalateAfterMs;
+    private final LocationHelper.LocationResultCallback callback;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Location> samples = new ArrayList<>();
+
+    private LocationSessionManager.Subscription activeSubscription;
+    private long startNanos;
+    private boolean finished;
+
+    private final Runnable escalateRunnable = this::escalate;
+    private final Runnable deadlineRunnable = this::onDeadline;
+
+    /**
+     * @param site The office the fix is checked against, or null to simply get an accurate fix.
+     */
+    public LocationAcquisition(LocationSessionManager sessionManager, CompanyConfig site,
+                               long deadlineMs, long escalateAfterMs,
+                               LocationHelper.LocationResultCallback callback) {
+        this.sessionManager = sessionManager;
+        this.site = site;
+        this.deadlineMs = deadlineMs;
+        this.escalateAfterMs = escalateAfterMs;
+        this.callback = callback;
+    }
+
+    public void start() {
+        startNanos = SystemClock.elapsedRealtimeNanos();
+        requestUpdates(Priority.PRIORITY_BALANCED_POWER_ACCURACY);
+        handler.postDelayed(escalateRunnable, escalateAfterMs);
+        handler.postDelayed(deadlineRunnable, deadlineMs);
+    }
+
+    /**
+     * Stops the attempt without delivering a result (e.g. screen closed).
+     */
+    public void cancel() {
+        if (finished) return;
+        finished = true;
+        release();
+        Log.d(TAG, "Acquisition cancelled.");
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void requestUpdates(int priority) {
+        // Subscribe first so the shared provider switches request instead of stopping in between
+        LocationSessionManager.Subscription previous = activeSubscription;
+        activeSubscription = sessionManager.subscribe(priority, SAMPLE_INTERVAL_MS, this::onSample);
+        sessionManager.unsubscribe(previous);
+    }
+
+    private void escalate() {
+        if (finished) return;
+        Log.d(TAG, "No decisive fix yet, escalating to high accuracy.");
+        requestUpdates(Priority.PRIORITY_HIGH_ACCURACY);
+    }
+
+    private void onSample(Location location) {
+        if (finished || location == null || !location.hasAccuracy()) return;
+        long priorAgeNanos = startNanos - location.getElapsedRealtimeNanos();
+        if (priorAgeNanos > TimeUnit.MILLISECONDS.toNanos(MAX_PRIOR_SAMPLE_AGE_MS)) return;
+        samples.add(location);
+
+        Location fused = fuseSamples(samples);
+        if (isDecisive(fused)) {
+            finish(fused);
+        }
+    }
+
+    private void onDeadline() {
+        if (finished) return;
+        if (samples.isEmpty()) {
+            finished = true;
+            release();
+            callback.onError("Timed out waiting for GPS. Move near a window and try again.");
+        } else {
+            // Best effort: the caller still applies the strict radius check to this fix
+            Log.w(TAG, "Deadline reached, using best fused fix from " + samples.size() + " samples.");
+            finish(fuseSamples(samples));
+        }
+    }
+
+    /**
+     * The decision is certain when the whole accuracy circle is inside, or fully outside, the site.
+     */
+    private boolean isDecisive(Location fused) {
+        float accuracy = fused.getAccuracy();
+        if (site == null) {
+            return accuracy <= TARGET_FREE_ACCURACY_METERS;
+        }
+
+        SitePolygon polygon = site.getPolygon();
+        if (polygon != null) {
+            return polygon.distanceToBoundary(fused.getLatitude(), fused.getLongitude()) >= accuracy;
+        }
+
+        // Fast distance, widened by its error bound so the decision stays conservative
+        double distance = GeoDistance.fastDistance(
+                fused.getLatitude(), fused.getLongitude(), site.getLatitude(), site.getLongitude());
+        double margin = accuracy + GeoDistance.errorBound(distance);
+        return distance + margin <= site.getRadius() || distance - margin > site.getRadius();
+    }
+
+    private void finish(Location result) {
+        finished = true;
+        release();
+        callback.onLocationResult(result);
+    }
+
+    private void release() {
+        handler.removeCallbacks(escalateRunnable);
+        handler.removeCallbacks(deadlineRunnable);
+        sessionManager.unsubscribe(activeSubscription);
+        activeSubscription = null;
+    }
+
+    /**
+     * Inverse-variance weighted mean of the samples.
+     * GPS errors of consecutive fixes are correlated, so the fused accuracy is never
+     * reported better than the best single sample.
+     */
+    static Location fuseSamples(List<Location> samples) {
+        float bestAccuracy = Float.MAX_VALUE;
+        Location newest = null;
+        for (Location sample : samples) {
+            bestAccuracy = Math.min(bestAccuracy, sample.getAccuracy());
+            if (newest == null || sample.getElapsedRealtimeNanos() > newest.getElapsedRealtimeNanos()) {
+                newest = sample;
+            }
+        }
+
+        double weightSum = 0, latSum = 0, lngSum = 0;
+        for (Location sample : samples) {
+            if (sample.getAccuracy() > bestAccuracy * OUTLIER_ACCURACY_FACTOR) continue;
+            double accuracy = Math.max(sample.getAccuracy(), 1.0);
+            double weight = 1.0 / (accuracy * accuracy);
+            weightSum += weight;
+            latSum += sample.getLatitude() * weight;
+            lngSum += sample.getLongitude() * weight;
+        }
+
+        Location fused = new Location(newest);
+        fused.setLatitude(latSum / weightSum);
+        fused.setLongitude(lngSum / weightSum);
+        fused.setAccuracy(bestAccuracy);
+        return fused;
+    }
+}
@@ -9,24 +9,23 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.inout.app.adapters.SelectionModel;
 import com.inout.app.models.CompanyConfig;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Professional Adapter for managing interactive Office Locations.
  * Features: Single tap to select/deselect, Long press to trigger bulk actions.
+ * Selection changes rebind only the tapped row, with SELECTION_PAYLOAD.
  */
 public class LocationAdapter extends RecyclerView.Adapter<LocationAdapter.LocationViewHolder> {
 
     private final List<CompanyConfig> locationList;
     private final OnLocationActionListener listener;
-    
-    // Stores the Document IDs of selected locations for multi-deletion
-    private final Set<String> selectedLocationIds = new HashSet<>();
+
+    // Selected locations by Document ID, for multi-deletion
+    private final SelectionModel<CompanyConfig> selection = new SelectionModel<>(CompanyConfig::getId);
 
     public interface OnLocationActionListener {
         // Triggered when items are selected and a long press occurs
@@ -38,79 +37,97 @@ public class LocationAdapter extends RecyclerView.Adapter<LocationAdapter.Locati
         this.listener = listener;
     }
 
+    /**
+     * Call after the backing list changed (instead of notifyDataSetChanged).
+     */
+    public void onListChanged() {
+        selection.setItems(locationList);
+        notifyDataSetChanged();
+    }
+
     @NonNull
     @Override
     public LocationViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_location, parent, false);
-        return new LocationViewHolder(view);
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull LocationViewHolder holder, int position) {
-        CompanyConfig location = locationList.get(position);
-
-        holder.tvName.setText(location.getName());
-
-        // Visual feedback: Show checkmark and overlay if the item is selected
-        if (selectedLocationIds.contains(location.getId())) {
-            holder.ivCheck.setVisibility(View.VISIBLE);
-            holder.viewOverlay.setVisibility(View.VISIBLE);
-        } else {
-            holder.ivCheck.setVisibility(View.GONE);
-            holder.viewOverlay.setVisibility(View.GONE);
-        }
+        LocationViewHolder holder = new LocationViewHolder(view);
 
         // SINGLE TAP logic: Toggle selection and update UI
-        holder.itemView.setOnClickListener(v -> {
-            toggleSelection(location.getId());
+        view.setOnClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) toggleSelection(locationList.get(position));
         });
 
         // LONG PRESS logic: Trigger the delete pop-up for all selected items
-        holder.itemView.setOnLongClickListener(v -> {
-            if (!selectedLocationIds.isEmpty()) {
-                // Ensure the long-pressed item is included in the selection
-                if (!selectedLocationIds.contains(location.getId())) {
-                    toggleSelection(location.getId());
-                }
-                
-                // Notify the fragment to show the Delete Confirmation
-                if (listener != null) {
-                    listener.onDeleteRequested(getSelectedLocations());
-                }
-                return true;
+        view.setOnLongClickListener(v -> {
+            int position = holder.getAdapterPosition();
+            if (position == RecyclerView.NO_POSITION || selection.isEmpty()) return false;
+
+            // Ensure the long-pressed item is included in the selection
+            CompanyConfig location = locationList.get(position);
+            if (!selection.isSelected(location)) {
+                toggleSelection(location);
             }
-            return false;
+
+            // Notify the fragment to show the Delete Confirmation
+            if (listener != null) {
+                listener.onDeleteRequested(getSelectedLocations());
+            }
+            return true;
         });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull LocationViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && onlySelection(payloads)) {
+            bindSelection(holder, locationList.get(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull LocationViewHolder holder, int position) {
+        CompanyConfig location = locationList.get(position);
+        holder.tvName.setText(location.getName());
+        bindSelection(holder, location);
     }
 
     /**
-     * Adds or removes a location ID from the selection set.
+     * Visual feedback: Show checkmark and overlay if the item is selected
      */
-    private void toggleSelection(String locationId) {
-        if (selectedLocationIds.contains(locationId)) {
-            selectedLocationIds.remove(locationId);
-        } else {
-            selectedLocationIds.add(locationId);
+    private void bindSelection(LocationViewHolder holder, CompanyConfig location) {
+        int visibility = selection.isSelected(location) ? View.VISIBLE : View.GONE;
+        holder.ivCheck.setVisibility(visibility);
+        holder.viewOverlay.setVisibility(visibility);
+    }
+
+    private static boolean onlySelection(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != SelectionModel.SELECTION_PAYLOAD) return false;
         }
-        notifyDataSetChanged();
+        return true;
+    }
+
+    /**
+     * Adds or removes a location from the selection and rebinds only its row.
+     */
+    private void toggleSelection(CompanyConfig location) {
+        int position = selection.toggle(location);
+        if (position >= 0) notifyItemChanged(position, SelectionModel.SELECTION_PAYLOAD);
     }
 
     /**
-     * Converts the set of selected IDs back into a list of Location objects.
+     * Selected locations in selection order.
      */
     public List<CompanyConfig> getSelectedLocations() {
-        List<CompanyConfig> selected = new ArrayList<>();
-        for (CompanyConfig loc : locationList) {
-            if (selectedLocationIds.contains(loc.getId())) {
-                selected.add(loc);
-            }
-        }
-        return selected;
+        return selection.getSelected();
     }
 
     public void clearSelection() {
-        selectedLocationIds.clear();
-        notifyDataSetChanged();
+        for (int position : selection.clear()) {
+            notifyItemChanged(position, SelectionModel.SELECTION_PAYLOAD);
+        }
     }
 
     @Override
@@ -130,4 +147,4 @@ public class LocationAdapter extends RecyclerView.Adapter<LocationAdapter.Locati
             viewOverlay = itemView.findViewById(R.id.view_selected_overlay);
         }
     }
-}
\ No newline at end of file
+}
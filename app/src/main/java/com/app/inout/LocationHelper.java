@@ -1,33 +1,34 @@
 package com.inout.app.utils;
 
-import android.Manifest;
 import android.annotation.SuppressLint;
 import android.content.Context;
-import android.content.pm.PackageManager;
 import android.location.Location;
-import android.os.Looper;
 import android.util.Log;
 
-import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
-
-import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationResult;
-import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
+import com.inout.app.models.CompanyConfig;
+
+import java.util.List;
 
 /**
  * Helper class to fetch current GPS location and calculate distances.
- * Strictly uses FusedLocationProvider for accuracy.
+ * Strictly uses FusedLocationProvider for accuracy, through the shared LocationSessionManager
+ * so several screens never open separate GPS sessions.
  * DOES NOT use Google Maps API.
  */
 public class LocationHelper {
 
     private static final String TAG = "LocationHelper";
-    private final FusedLocationProviderClient fusedLocationClient;
-    private final Context context;
+
+    // Warm-up stream: slow enough to be cheap, fast enough that a fix is rarely older than the policy allows
+    private static final long WARM_UP_INTERVAL_MS = 10000;
+
+    private final LocationSessionManager sessionManager;
+
+    private LocationSessionManager.Subscription warmUpSubscription;
+    private LocationAcquisition activeAcquisition;
+    // Bumped by every request and by cancelPendingRequest(); a last-location answer for an older one is dropped
+    private int requestGeneration;
 
     public interface LocationResultCallback {
         void onLocationResult(Location location);
@@ -35,8 +36,70 @@ public class LocationHelper {
     }
 
     public LocationHelper(Context context) {
-        this.context = context;
-        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(context);
+        this.sessionManager = LocationSessionManager.getInstance(context);
+    }
+
+    /**
+     * Starts a low-rate, balanced-power location stream while the check-in screen is visible.
+     * Fixes land in the shared session so that a check-in can use them without waiting; a punch
+     * that needs better accuracy escalates to GPS itself (LocationAcquisition).
+     */
+    public void startWarmUp() {
+        if (warmUpSubscription != null || !hasPermissions()) return;
+        warmUpSubscription = sessionManager.subscribe(Priority.PRIORITY_BALANCED_POWER_ACCURACY, WARM_UP_INTERVAL_MS, location -> { });
+        Log.d(TAG, "Location warm-up started.");
+    }
+
+    /**
+     * Stops the warm-up stream. Must be called when the screen is no longer visible.
+     */
+    public void stopWarmUp() {
+        if (warmUpSubscription == null) return;
+        sessionManager.unsubscribe(warmUpSubscription);
+        warmUpSubscription = null;
+        Log.d(TAG, "Location warm-up stopped.");
+    }
+
+    /**
+     * @return The latest fix known to the app (from any screen), or null if none arrived yet.
+     */
+    public Location getWarmUpFix() {
+        return sessionManager.getLatestFix();
+    }
+
+    /**
+     * Fetches a location that satisfies the acceptance policy for the given site.
+     * Order: warm-up fix, then the provider's last known location, then a fresh bounded acquisition.
+     */
+    @SuppressLint("MissingPermission")
+    public void getCurrentLocation(CompanyConfig site, LocationAcceptancePolicy policy, final LocationResultCallback callback) {
+        if (!hasPermissions()) {
+            callback.onError("Location permissions not granted.");
+            return;
+        }
+
+        int generation = ++requestGeneration;
+        float siteRadiusMeters = site.getRadius();
+        Location warmUpFix = sessionManager.getLatestFix();
+        if (policy.isAcceptable(warmUpFix, siteRadiusMeters)) {
+            Log.d(TAG, "Using warm-up fix (accuracy " + warmUpFix.getAccuracy() + "m).");
+            callback.onLocationResult(warmUpFix);
+            return;
+        }
+
+        sessionManager.getLastLocation().addOnSuccessListener(location -> {
+            if (generation != requestGeneration) return;
+            if (policy.isAcceptable(location, siteRadiusMeters)) {
+                Log.d(TAG, "Using last known fix (accuracy " + location.getAccuracy() + "m).");
+                callback.onLocationResult(location);
+            } else {
+                requestFreshLocation(site, callback);
+            }
+        }).addOnFailureListener(e -> {
+            if (generation != requestGeneration) return;
+            Log.e(TAG, "Failed to get last location", e);
+            requestFreshLocation(site, callback);
+        });
     }
 
     /**
@@ -49,43 +112,45 @@ public class LocationHelper {
             return;
         }
 
+        int generation = ++requestGeneration;
         // Try getting the last known location first for speed
-        fusedLocationClient.getLastLocation().addOnSuccessListener(location -> {
-            if (location != null) {
-                // If the last location is fresh enough (e.g., < 10 seconds), use it.
-                // For this app, to ensure they are actually at the office, we prefer a fresh update.
-                // So we will request a fresh update regardless to prevent spoofing with old data.
-                requestFreshLocation(callback);
-            } else {
-                requestFreshLocation(callback);
-            }
+        sessionManager.getLastLocation().addOnSuccessListener(location -> {
+            if (generation != requestGeneration) return;
+            // To ensure they are actually at the office, a fresh update is requested even when a
+            // last location exists (prevents spoofing with old data).
+            requestFreshLocation(null, callback);
         }).addOnFailureListener(e -> {
+            if (generation != requestGeneration) return;
             Log.e(TAG, "Failed to get last location", e);
-            requestFreshLocation(callback);
+            requestFreshLocation(null, callback);
         });
     }
 
-    @SuppressLint("MissingPermission")
-    private void requestFreshLocation(final LocationResultCallback callback) {
-        // High accuracy request to ensure they are within the 100m radius
-        LocationRequest locationRequest = new LocationRequest.Builder(Priority.PRIORITY_HIGH_ACCURACY, 5000)
-                .setWaitForAccurateLocation(true)
-                .setMaxUpdates(1)
-                .build();
-
-        LocationCallback locationCallback = new LocationCallback() {
-            @Override
-            public void onLocationResult(@NonNull LocationResult locationResult) {
-                Location location = locationResult.getLastLocation();
-                if (location != null) {
-                    callback.onLocationResult(location);
-                } else {
-                    callback.onError("Failed to fetch current location.");
-                }
-            }
-        };
+    /**
+     * Starts a bounded acquisition (deadline + priority escalation + sample fusion).
+     * Any attempt still running is cancelled first so only one GPS session exists per helper.
+     */
+    private void requestFreshLocation(CompanyConfig site, final LocationResultCallback callback) {
+        cancelAcquisition();
+        activeAcquisition = new LocationAcquisition(sessionManager, site,
+                LocationAcquisition.DEFAULT_DEADLINE_MS, LocationAcquisition.DEFAULT_ESCALATE_AFTER_MS, callback);
+        activeAcquisition.start();
+    }
+
+    /**
+     * Stops a running acquisition, or one still waiting for the last known location, without
+     * delivering a result. Call when the screen goes away.
+     */
+    public void cancelPendingRequest() {
+        requestGeneration++;
+        cancelAcquisition();
+    }
 
-        fusedLocationClient.requestLocationUpdates(locationRequest, locationCallback, Looper.getMainLooper());
+    private void cancelAcquisition() {
+        if (activeAcquisition != null && !activeAcquisition.isFinished()) {
+            activeAcquisition.cancel();
+        }
+        activeAcquisition = null;
     }
 
     /**
@@ -95,21 +160,65 @@ public class LocationHelper {
      * @return Distance in meters.
      */
     public static float calculateDistance(double startLat, double startLng, double endLat, double endLng) {
-        float[] results = new float[1];
-        Location.distanceBetween(startLat, startLng, endLat, endLng, results);
-        return results[0];
+        return GeoDistance.preciseDistance(startLat, startLng, endLat, endLng);
     }
 
     /**
      * Checks if the distance is within the allowed radius.
+     * The precise distance is only computed when the point is close to the radius boundary.
      */
     public static boolean isWithinRadius(double currentLat, double currentLng, double targetLat, double targetLng, float radiusMeters) {
-        float distance = calculateDistance(currentLat, currentLng, targetLat, targetLng);
-        Log.d(TAG, "Distance to target: " + distance + " meters. Allowed: " + radiusMeters);
-        return distance <= radiusMeters;
+        boolean inside = GeoDistance.isWithinRadius(currentLat, currentLng, targetLat, targetLng, radiusMeters);
+        Log.d(TAG, "Radius check (" + radiusMeters + "m): " + (inside ? "inside" : "outside"));
+        return inside;
+    }
+
+    /**
+     * Site containment: polygon boundary when the site has one, otherwise the radius circle.
+     */
+    public static boolean isInsideSite(CompanyConfig site, double lat, double lng) {
+        SitePolygon polygon = site.getPolygon();
+        if (polygon != null) {
+            boolean inside = polygon.contains(lat, lng);
+            Log.d(TAG, "Polygon check for " + site.getName() + ": " + (inside ? "inside" : "outside"));
+            return inside;
+        }
+        return isWithinRadius(lat, lng, site.getLatitude(), site.getLongitude(), site.getRadius());
+    }
+
+    /**
+     * First of the candidates (in their order) that contains the point. The radius circles are
+     * checked in one batch; polygon sites are confirmed against their boundary.
+     *
+     * @return The containing site, or null if the point is outside every candidate.
+     */
+    public static CompanyConfig firstSiteContaining(List<CompanyConfig> candidates, double lat, double lng) {
+        int n = candidates.size();
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        float[] radii = new float[n];
+        boolean[] insideRadius = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = candidates.get(i).getLatitude();
+            lngs[i] = candidates.get(i).getLongitude();
+            radii[i] = candidates.get(i).getRadius();
+        }
+        GeoDistance.withinRadius(lat, lng, lats, lngs, radii, insideRadius);
+
+        for (int i = 0; i < n; i++) {
+            CompanyConfig site = candidates.get(i);
+            SitePolygon polygon = site.getPolygon();
+            boolean inside = polygon != null ? polygon.contains(lat, lng) : insideRadius[i];
+            if (inside) {
+                Log.d(TAG, "Inside " + site.getName() + " (" + (i + 1) + " of " + n + " candidates checked)");
+                return site;
+            }
+        }
+        Log.d(TAG, "Outside all " + n + " candidate site(s)");
+        return null;
     }
 
     private boolean hasPermissions() {
-        return ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+        return sessionManager.hasPermissions();
     }
 }
\ No newline at end of file
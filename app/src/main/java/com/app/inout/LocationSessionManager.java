@@ -0,0 +1,174 @@
+package com.inout.app.utils;
+
+import android.Manifest;
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationResult;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * App-wide owner of the single FusedLocationProviderClient subscription.
+ * All screens register as consumers; the provider request is the most demanding
+ * one among them (best priority, shortest interval) and is removed when nobody listens.
+ * The latest fix is shared, so a screen opened second gets a location instantly.
+ * All methods must be called from the main thread.
+ */
+public class LocationSessionManager {
+
+    private static final String TAG = "LocationSession";
+    private static LocationSessionManager instance;
+
+    private final Context appContext;
+    private final FusedLocationProviderClient fusedLocationClient;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    private Location latestFix;
+    private int activePriority = -1;
+    private long activeIntervalMs = -1;
+
+    public interface LocationConsumer {
+        void onLocation(Location location);
+    }
+
+    /**
+     * Handle returned to a consumer; pass it back to unsubscribe().
+     */
+    public static class Subscription {
+        final int priority;
+        final long intervalMs;
+        final LocationConsumer consumer;
+
+        Subscription(int priority, long intervalMs, LocationConsumer consumer) {
+            this.priority = priority;
+            this.intervalMs = intervalMs;
+            this.consumer = consumer;
+        }
+    }
+
+    private final LocationCallback providerCallback = new LocationCallback() {
+        @Override
+        public void onLocationResult(@NonNull LocationResult locationResult) {
+            for (Location location : locationResult.getLocations()) {
+                latestFix = location;
+                // Copy: consumers may unsubscribe while being notified
+                for (Subscription sub : new ArrayList<>(subscriptions)) {
+                    sub.consumer.onLocation(location);
+                }
+            }
+        }
+    };
+
+    private LocationSessionManager(Context context) {
+        this.appContext = context;
+        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(context);
+    }
+
+    public static synchronized LocationSessionManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new LocationSessionManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a consumer. If a fix is already known it is delivered right away (posted),
+     * the consumer decides itself whether that fix is fresh enough.
+     *
+     * @param priority   One of the com.google.android.gms.location.Priority constants.
+     * @param intervalMs Desired update interval for this consumer.
+     */
+    public Subscription subscribe(int priority, long intervalMs, LocationConsumer consumer) {
+        Subscription sub = new Subscription(priority, intervalMs, consumer);
+        subscriptions.add(sub);
+        updateProviderRequest();
+
+        final Location known = latestFix;
+        if (known != null) {
+            mainHandler.post(() -> {
+                if (subscriptions.contains(sub)) consumer.onLocation(known);
+            });
+        }
+        return sub;
+    }
+
+    public void unsubscribe(Subscription sub) {
+        if (sub == null) return;
+        if (subscriptions.remove(sub)) {
+            updateProviderRequest();
+        }
+    }
+
+    /**
+     * @return The most recent fix seen by any consumer, or null.
+     */
+    public Location getLatestFix() {
+        return latestFix;
+    }
+
+    @SuppressLint("MissingPermission")
+    public Task<Location> getLastLocation() {
+        return fusedLocationClient.getLastLocation();
+    }
+
+    public boolean hasPermissions() {
+        return ContextCompat.checkSelfPermission(appContext, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /**
+     * Re-issues the provider request only when the combined requirement actually changed.
+     * Priority constants are ordered from most accurate (lowest value) to least accurate.
+     */
+    @SuppressLint("MissingPermission")
+    private void updateProviderRequest() {
+        if (subscriptions.isEmpty()) {
+            if (activePriority != -1) {
+                fusedLocationClient.removeLocationUpdates(providerCallback);
+                activePriority = -1;
+                activeIntervalMs = -1;
+                Log.d(TAG, "No consumers left, location updates stopped.");
+            }
+            return;
+        }
+
+        int priority = Integer.MAX_VALUE;
+        long intervalMs = Long.MAX_VALUE;
+        for (Subscription sub : subscriptions) {
+            priority = Math.min(priority, sub.priority);
+            intervalMs = Math.min(intervalMs, sub.intervalMs);
+        }
+
+        if (priority == activePriority && intervalMs == activeIntervalMs) return;
+
+        if (!hasPermissions()) {
+            Log.w(TAG, "Location permissions not granted, cannot start updates.");
+            return;
+        }
+
+        LocationRequest request = new LocationRequest.Builder(priority, intervalMs)
+                .setMinUpdateIntervalMillis(intervalMs)
+                .build();
+
+        // Re-using the same callback replaces the previous request instead of adding one
+        fusedLocationClient.requestLocationUpdates(request, providerCallback, Looper.getMainLooper());
+        activePriority = priority;
+        activeIntervalMs = intervalMs;
+        Log.d(TAG, "Location updates: priority=" + priority + ", interval=" + intervalMs + "ms, consumers=" + subscriptions.size());
+    }
+}
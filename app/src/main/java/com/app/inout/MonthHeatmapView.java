@@ -0,0 +1,279 @@
+package com.inout.app.views;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.inout.app.R;
+import com.inout.app.models.AttendanceMatrix;
+import com.inout.app.models.AttendanceRecord;
+import com.inout.app.utils.TimeUtils;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Month-at-a-glance calendar: one colored cell per day (present / partial / absent).
+ * The calendar is rendered once into a bitmap; later updates repaint only the day cells
+ * whose status changed, and onDraw just blits the bitmap. Input is one status per day
+ * (AttendanceMatrix constants), so drawing cost does not depend on the number of records.
+ */
+public class MonthHeatmapView extends View {
+
+    private static final String[] WEEKDAY_INITIALS = {"S", "M", "T", "W", "T", "F", "S"};
+
+    private static final int WEEKS = 6;
+    private static final float CELL_HEIGHT_DP = 28f;
+    private static final float HEADER_HEIGHT_DP = 20f;
+    private static final float CELL_GAP_DP = 3f;
+    private static final float CORNER_DP = 4f;
+
+    private final int cellHeight;
+    private final int headerHeight;
+    private final float cellGap;
+    private final float corner;
+
+    private final Paint[] fillPaints = new Paint[4];    // Indexed by status
+    private final Paint dayTextPaint;
+    private final Paint dayTextOnColorPaint;
+    private final Paint headerPaint;
+    private final Paint todayPaint;
+    private final RectF cellRect = new RectF();
+
+    private String monthId;
+    private byte[] statuses = new byte[0];
+    private int firstWeekday;       // 0 = Sunday
+    private int todayIndex = -1;    // Day index of today in this month, or -1
+
+    private Bitmap cache;
+    private Canvas cacheCanvas;
+    private boolean cacheValid;
+
+    public MonthHeatmapView(Context context) {
+        this(context, null);
+    }
+
+    public MonthHeatmapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        cellHeight = Math.round(CELL_HEIGHT_DP * density);
+        headerHeight = Math.round(HEADER_HEIGHT_DP * density);
+        cellGap = CELL_GAP_DP * density;
+        corner = CORNER_DP * density;
+
+        fillPaints[AttendanceMatrix.STATUS_NONE] = fill(ContextCompat.getColor(context, R.color.light_gray));
+        fillPaints[AttendanceMatrix.STATUS_ABSENT] = fill(ContextCompat.getColor(context, R.color.status_red));
+        fillPaints[AttendanceMatrix.STATUS_PARTIAL] = fill(ContextCompat.getColor(context, R.color.status_orange));
+        fillPaints[AttendanceMatrix.STATUS_PRESENT] = fill(ContextCompat.getColor(context, R.color.status_green));
+        // Absent days are common; keep them readable but quieter than present days
+        fillPaints[AttendanceMatrix.STATUS_ABSENT].setAlpha(90);
+
+        float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 12f, getResources().getDisplayMetrics());
+        dayTextPaint = text(textSize, ContextCompat.getColor(context, R.color.dark_gray), false);
+        dayTextOnColorPaint = text(textSize, Color.WHITE, true);
+        headerPaint = text(textSize, ContextCompat.getColor(context, R.color.dark_gray), true);
+
+        todayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        todayPaint.setStyle(Paint.Style.STROKE);
+        todayPaint.setStrokeWidth(2 * density);
+        todayPaint.setColor(Color.BLACK);
+    }
+
+    private static Paint fill(int color) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(color);
+        return paint;
+    }
+
+    private static Paint text(float size, int color, boolean bold) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(size);
+        paint.setColor(color);
+        paint.setTextAlign(Paint.Align.CENTER);
+        if (bold) paint.setTypeface(Typeface.DEFAULT_BOLD);
+        return paint;
+    }
+
+    /**
+     * One status per day of the month, from the records of that month (other months are ignored).
+     * Days up to today without a record are absent; later days have no status.
+     */
+    public static byte[] statusesFor(String monthId, List<AttendanceRecord> records) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(TimeUtils.getMonthStartMillis(monthId, false));
+        byte[] statuses = new byte[cal.getActualMaximum(Calendar.DAY_OF_MONTH)];
+
+        String todayId = TimeUtils.getCurrentDateId();
+        String currentMonth = TimeUtils.getMonthId(todayId);
+        int elapsedDays = monthId.compareTo(currentMonth) < 0 ? statuses.length
+                : monthId.equals(currentMonth) ? Integer.parseInt(todayId.substring(8)) : 0;
+        Arrays.fill(statuses, 0, elapsedDays, AttendanceMatrix.STATUS_ABSENT);
+
+        for (AttendanceRecord record : records) {
+            String date = record.getDate();
+            if (date == null || !date.startsWith(monthId) || date.length() < 10) continue;
+            int day = Integer.parseInt(date.substring(8, 10)) - 1;
+            String status = record.getStatus();
+            if (status.equals("Present")) {
+                statuses[day] = AttendanceMatrix.STATUS_PRESENT;
+            } else if (status.equals("Partial")) {
+                statuses[day] = AttendanceMatrix.STATUS_PARTIAL;
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Shows a month. For the month already shown, only changed days are repainted.
+     */
+    public void setMonth(String monthId, byte[] dayStatuses) {
+        byte[] next = dayStatuses.clone();
+        String todayId = TimeUtils.getCurrentDateId();
+        int nextToday = TimeUtils.getMonthId(todayId).equals(monthId) ? Integer.parseInt(todayId.substring(8)) - 1 : -1;
+
+        if (!monthId.equals(this.monthId) || next.length != statuses.length) {
+            this.monthId = monthId;
+            this.statuses = next;
+            this.firstWeekday = weekdayOfFirst(monthId);
+            this.todayIndex = nextToday;
+            cacheValid = false;
+            setContentDescription(describe());
+            invalidate();
+            return;
+        }
+
+        boolean changed = false;
+        int previousToday = todayIndex;
+        todayIndex = nextToday;
+        boolean todayMoved = previousToday != nextToday;
+        for (int day = 0; day < next.length; day++) {
+            if (next[day] != statuses[day] || (todayMoved && (day == previousToday || day == nextToday))) {
+                statuses[day] = next[day];
+                if (cacheValid) drawDay(cacheCanvas, day, true);
+                changed = true;
+            }
+        }
+        if (changed) {
+            setContentDescription(describe());
+            invalidate();
+        }
+    }
+
+    private static int weekdayOfFirst(String monthId) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(TimeUtils.getMonthStartMillis(monthId, false));
+        return cal.get(Calendar.DAY_OF_WEEK) - 1;
+    }
+
+    private String describe() {
+        int present = 0, partial = 0, absent = 0;
+        for (byte status : statuses) {
+            if (status == AttendanceMatrix.STATUS_PRESENT) present++;
+            else if (status == AttendanceMatrix.STATUS_PARTIAL) partial++;
+            else if (status == AttendanceMatrix.STATUS_ABSENT) absent++;
+        }
+        return present + " present, " + partial + " partial, " + absent + " absent days";
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        // Always room for six weeks, so the view does not jump between months
+        int height = headerHeight + WEEKS * cellHeight + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        releaseCache();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseCache();
+    }
+
+    private void releaseCache() {
+        if (cache != null) cache.recycle();
+        cache = null;
+        cacheCanvas = null;
+        cacheValid = false;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (monthId == null || getWidth() == 0 || getHeight() == 0) return;
+        if (cache == null) {
+            cache = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+            cacheCanvas = new Canvas(cache);
+        }
+        if (!cacheValid) {
+            renderAll(cacheCanvas);
+            cacheValid = true;
+        }
+        canvas.drawBitmap(cache, 0, 0, null);
+    }
+
+    private float cellWidth() {
+        return (getWidth() - getPaddingLeft() - getPaddingRight()) / 7f;
+    }
+
+    private void renderAll(Canvas canvas) {
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        float cellWidth = cellWidth();
+        float baseline = getPaddingTop() + headerHeight / 2f - (headerPaint.ascent() + headerPaint.descent()) / 2f;
+        for (int weekday = 0; weekday < 7; weekday++) {
+            canvas.drawText(WEEKDAY_INITIALS[weekday], getPaddingLeft() + (weekday + 0.5f) * cellWidth, baseline, headerPaint);
+        }
+        for (int day = 0; day < statuses.length; day++) {
+            drawDay(canvas, day, false);
+        }
+    }
+
+    /**
+     * Paints one day cell into the cache; clear first when repainting over an old cell.
+     */
+    private void drawDay(Canvas canvas, int day, boolean clear) {
+        int slot = firstWeekday + day;
+        float cellWidth = cellWidth();
+        float left = getPaddingLeft() + (slot % 7) * cellWidth;
+        float top = getPaddingTop() + headerHeight + (slot / 7) * cellHeight;
+        cellRect.set(left, top, left + cellWidth, top + cellHeight);
+
+        if (clear) {
+            canvas.save();
+            canvas.clipRect(cellRect);
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            canvas.restore();
+        }
+
+        byte status = statuses[day];
+        cellRect.inset(cellGap / 2f, cellGap / 2f);
+        canvas.drawRoundRect(cellRect, corner, corner, fillPaints[status]);
+        if (day == todayIndex) {
+            float inset = todayPaint.getStrokeWidth() / 2f;
+            cellRect.inset(inset, inset);
+            canvas.drawRoundRect(cellRect, corner, corner, todayPaint);
+        }
+
+        Paint textPaint = status == AttendanceMatrix.STATUS_PRESENT || status == AttendanceMatrix.STATUS_PARTIAL
+                ? dayTextOnColorPaint : dayTextPaint;
+        float baseline = cellRect.centerY() - (textPaint.ascent() + textPaint.descent()) / 2f;
+        canvas.drawText(String.valueOf(day + 1), cellRect.centerX(), baseline, textPaint);
+    }
+}
@@ -0,0 +1,232 @@
+package com.inout.app.adapters;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.inout.app.R;
+import com.inout.app.models.AttendanceRecord;
+import com.inout.app.models.HistorySection;
+import com.inout.app.utils.TimeUtils;
+import com.inout.app.views.AttendanceRowView;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Employee history as month sections: a header row (month and summary) followed by that
+ * month's attendance rows, drawn by AttendanceRowView like the other tables. A month not loaded
+ * yet shows a fixed-height placeholder instead of its rows.
+ * Items are built and diffed on a background thread; works with StickyHeaderDecoration.
+ */
+public class MonthHistoryAdapter extends ListAdapter<MonthHistoryAdapter.Item, RecyclerView.ViewHolder>
+        implements StickyHeaderDecoration.HeaderProvider {
+
+    public static final int VIEW_TYPE_HEADER = 1;
+    public static final int VIEW_TYPE_ROW = AttendanceAdapter.VIEW_TYPE_ROW;
+    public static final int VIEW_TYPE_PLACEHOLDER = 2;
+
+    private static final ExecutorService ITEM_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int submitGeneration;
+
+    /**
+     * A month header, a month's placeholder, or an attendance row. Immutable.
+     */
+    public static final class Item {
+        final String key;
+        final int viewType;
+        final int section;
+        final String monthId;
+        final String title;
+        final String summary;
+        final AttendanceRowModel row;
+
+        private Item(String key, int viewType, int section, String monthId, String title, String summary,
+                     AttendanceRowModel row) {
+            this.key = key;
+            this.viewType = viewType;
+            this.section = section;
+            this.monthId = monthId;
+            this.title = title;
+            this.summary = summary;
+            this.row = row;
+        }
+
+        boolean isHeader() {
+            return viewType == VIEW_TYPE_HEADER;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Item)) return false;
+            Item other = (Item) o;
+            return section == other.section && key.equals(other.key)
+                    && Objects.equals(summary, other.summary) && Objects.equals(row, other.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK = new DiffUtil.ItemCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.key.equals(newItem.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    public MonthHistoryAdapter() {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(ITEM_EXECUTOR)
+                .build());
+    }
+
+    /**
+     * Builds header and row items off the main thread, then diffs them. A newer call
+     * supersedes one still being built; {@code onCommitted} runs once the list is shown.
+     */
+    public void submitSections(List<HistorySection> sections, Runnable onCommitted) {
+        int generation = ++submitGeneration;
+        ITEM_EXECUTOR.execute(() -> {
+            List<Item> items = buildItems(sections);
+            mainHandler.post(() -> {
+                if (generation == submitGeneration) submitList(items, onCommitted);
+            });
+        });
+    }
+
+    private static List<Item> buildItems(List<HistorySection> sections) {
+        List<Item> items = new ArrayList<>();
+        SimpleDateFormat monthFormat = new SimpleDateFormat("MMMM yyyy", Locale.US);
+        for (int section = 0; section < sections.size(); section++) {
+            HistorySection month = sections.get(section);
+            String monthId = month.getMonthId();
+            String title = monthFormat.format(TimeUtils.getMonthStartMillis(monthId, false));
+            items.add(new Item("month|" + monthId, VIEW_TYPE_HEADER, section, monthId, title, summarize(month), null));
+            if (!month.isLoaded()) {
+                items.add(new Item("placeholder|" + monthId, VIEW_TYPE_PLACEHOLDER, section, monthId, null, null, null));
+                continue;
+            }
+            for (AttendanceRecord record : month.getRecords()) {
+                AttendanceRowModel row = AttendanceRowModel.from(record);
+                items.add(new Item("day|" + row.getKey(), VIEW_TYPE_ROW, section, monthId, null, null, row));
+            }
+        }
+        return items;
+    }
+
+    private static String summarize(HistorySection month) {
+        if (!month.isLoaded()) return "Loading…";
+        if (month.getRecords().isEmpty()) return "No attendance recorded";
+        int present = 0, partial = 0;
+        long minutes = 0;
+        for (AttendanceRecord record : month.getRecords()) {
+            String status = record.getStatus();
+            if (status.equals("Present")) present++;
+            else if (status.equals("Partial")) partial++;
+            minutes += record.getTotalMinutes();
+        }
+        return present + " present • " + partial + " partial • " + TimeUtils.formatDuration(minutes);
+    }
+
+    /**
+     * @return Section (month index, newest first) of an adapter position.
+     */
+    public int getSectionAt(int position) {
+        return getItem(position).section;
+    }
+
+    public String getMonthIdAt(int position) {
+        return getItem(position).monthId;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).viewType;
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (viewType == VIEW_TYPE_HEADER) {
+            return new PlainViewHolder(createHeaderView(parent));
+        }
+        if (viewType == VIEW_TYPE_PLACEHOLDER) {
+            return new PlainViewHolder(LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.item_history_month_placeholder, parent, false));
+        }
+        return new AttendanceAdapter.AttendanceViewHolder(new AttendanceRowView(parent.getContext()));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        Item item = getItem(position);
+        if (item.viewType == VIEW_TYPE_PLACEHOLDER) return;
+        if (item.isHeader()) {
+            bindHeader(holder.itemView, item);
+        } else {
+            ((AttendanceAdapter.AttendanceViewHolder) holder).rowView.setRow(item.row);
+        }
+    }
+
+    // --- StickyHeaderDecoration.HeaderProvider ---
+
+    @Override
+    public boolean isHeader(int position) {
+        return position >= 0 && position < getItemCount() && getItem(position).isHeader();
+    }
+
+    @Override
+    public int getHeaderPositionFor(int position) {
+        for (int i = position; i >= 0; i--) {
+            if (getItem(i).isHeader()) return i;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public View createHeaderView(ViewGroup parent) {
+        return LayoutInflater.from(parent.getContext()).inflate(R.layout.item_history_month_header, parent, false);
+    }
+
+    @Override
+    public void bindHeader(View header, int headerPosition) {
+        bindHeader(header, getItem(headerPosition));
+    }
+
+    private static void bindHeader(View header, Item item) {
+        ((TextView) header.findViewById(R.id.tv_section_month)).setText(item.title);
+        ((TextView) header.findViewById(R.id.tv_section_summary)).setText(item.summary);
+    }
+
+    // Headers and placeholders: plain views, nothing to hold on to
+    static class PlainViewHolder extends RecyclerView.ViewHolder {
+        PlainViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.inout.app.models;
+
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.IgnoreExtraProperties;
+import com.google.firebase.firestore.PropertyName;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Monthly totals of one employee, stored in 'attendance_monthly/{employeeId_yyyy-MM}'.
+ * Each day is a separate map entry, so the materializer can update a single day with a
+ * merge (no read, idempotent) and the totals are summed when reading.
+ */
+@IgnoreExtraProperties
+public class MonthlyAttendance {
+
+    private String employeeId;
+    private String month;                           // yyyy-MM
+    private Map<String, Long> dayMinutes = new HashMap<>();  // "dd" -> worked minutes
+
+    public MonthlyAttendance() {
+        // Default constructor required for Firestore
+    }
+
+    public static String documentId(String employeeId, String monthId) {
+        return employeeId + "_" + monthId;
+    }
+
+    @PropertyName("employeeId")
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    @PropertyName("employeeId")
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    @PropertyName("month")
+    public String getMonth() {
+        return month;
+    }
+
+    @PropertyName("month")
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    @PropertyName("dayMinutes")
+    public Map<String, Long> getDayMinutes() {
+        return dayMinutes;
+    }
+
+    @PropertyName("dayMinutes")
+    public void setDayMinutes(Map<String, Long> dayMinutes) {
+        this.dayMinutes = dayMinutes != null ? dayMinutes : new HashMap<>();
+    }
+
+    @Exclude
+    public long getTotalMinutes() {
+        long total = 0;
+        for (Long minutes : dayMinutes.values()) {
+            if (minutes != null) total += minutes;
+        }
+        return total;
+    }
+
+    /**
+     * @return Days with at least one check-in this month.
+     */
+    @Exclude
+    public int getDaysPresent() {
+        return dayMinutes.size();
+    }
+}
@@ -0,0 +1,310 @@
+package com.inout.app.models;
+
+import com.inout.app.utils.TimeUtils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A single check-in or check-out, captured at the moment of the punch.
+ * Everything needed to write the attendance record later is stored here,
+ * so the event can be replayed after the app was offline or restarted.
+ */
+public class PunchEvent {
+
+    public static final String TYPE_IN = "in";
+    public static final String TYPE_OUT = "out";
+
+    private String eventId;
+    private String type;
+    private String uid;             // Firebase user who punched (owner of 'users/{uid}')
+    private String employeeId;
+    private String employeeName;
+    private String dateId;          // yyyy-MM-dd, day the punch belongs to
+    private String time;            // Display time, e.g. "09:05 AM"
+    private long timestamp;         // Wall-clock millis of the punch
+    private double lat;
+    private double lng;
+    private float distanceMeters;
+    private String locationName;
+    private String checkInTime;     // For check-outs: the matching check-in, used for total hours
+    private boolean fingerprintVerified;
+    private boolean gpsVerified;
+
+    // Status of the day after this punch; written to the user document with the punch (queue only)
+    private Map<String, Object> todayStatus;
+
+    public PunchEvent() {
+    }
+
+    public PunchEvent(String type, String employeeId, String employeeName, String dateId, String time, long timestamp) {
+        this.eventId = UUID.randomUUID().toString();
+        this.type = type;
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.dateId = dateId;
+        this.time = time;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return The deterministic ID of the daily attendance record this punch belongs to.
+     */
+    public String getRecordId() {
+        return employeeId + "_" + dateId;
+    }
+
+    public boolean isCheckIn() {
+        return TYPE_IN.equals(type);
+    }
+
+    /**
+     * @return True if the record has a check-in without a matching check-out.
+     */
+    public static boolean isSessionOpen(AttendanceRecord record) {
+        return record != null && record.getCheckInTime() != null
+                && (record.getCheckOutTime() == null || record.getCheckOutTime().isEmpty());
+    }
+
+    /**
+     * Folds this punch into the daily record (one step of the materializer).
+     * A check-in while a session is open, or a check-out without one, is ignored.
+     *
+     * @return A new record with the punch applied; the given record is not modified.
+     */
+    public AttendanceRecord applyTo(AttendanceRecord record) {
+        AttendanceRecord result;
+        if (record != null) {
+            result = new AttendanceRecord(record);
+        } else {
+            result = new AttendanceRecord(employeeId, employeeName, dateId, timestamp);
+            result.setRecordId(getRecordId());
+            result.setFingerprintVerified(fingerprintVerified);
+            result.setGpsVerified(gpsVerified);
+        }
+        boolean open = isSessionOpen(result);
+
+        if (isCheckIn()) {
+            if (open) return result;
+            if (result.getCheckInTime() == null) {
+                // First session of the day defines the record's check-in
+                result.setCheckInTime(time);
+                result.setCheckInLat(lat);
+                result.setCheckInLng(lng);
+                result.setDistanceMeters(distanceMeters);
+                result.setLocationName(locationName);
+                result.setTimestamp(timestamp);
+            }
+            result.setCheckOutTime(null);
+            result.setLastCheckInTime(time);
+            result.setLastCheckInTimestamp(timestamp);
+            result.setSessions(result.getSessions() + 1);
+            result.setFingerprintVerified(result.isFingerprintVerified() && fingerprintVerified);
+            result.setGpsVerified(result.isGpsVerified() && gpsVerified);
+        } else {
+            if (!open) return result;
+            // Records from before punches have no session start of their own
+            String sessionStart = result.getLastCheckInTime() != null ? result.getLastCheckInTime() : result.getCheckInTime();
+            long minutes = result.getLastCheckInTimestamp() > 0
+                    ? Math.max(0, (timestamp - result.getLastCheckInTimestamp()) / 60000)
+                    : Math.max(0, TimeUtils.durationMinutes(sessionStart, time));
+            result.setTotalMinutes(result.getTotalMinutes() + minutes);
+            result.setTotalHours(TimeUtils.formatDuration(result.getTotalMinutes()));
+            result.setCheckOutTime(time);
+            result.setCheckOutLat(lat);
+            result.setCheckOutLng(lng);
+        }
+        return result;
+    }
+
+    /**
+     * Firestore representation in the 'punches' collection (document ID = eventId).
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("eventId", eventId);
+        map.put("type", type);
+        map.put("uid", uid);
+        map.put("employeeId", employeeId);
+        map.put("employeeName", employeeName);
+        map.put("dateId", dateId);
+        map.put("time", time);
+        map.put("timestamp", timestamp);
+        map.put("lat", lat);
+        map.put("lng", lng);
+        map.put("distanceMeters", (double) distanceMeters);
+        map.put("locationName", locationName);
+        map.put("checkInTime", checkInTime);
+        map.put("fingerprintVerified", fingerprintVerified);
+        map.put("gpsVerified", gpsVerified);
+        return map;
+    }
+
+    public static PunchEvent fromMap(Map<String, Object> map) {
+        PunchEvent event = new PunchEvent();
+        event.eventId = (String) map.get("eventId");
+        event.type = (String) map.get("type");
+        event.uid = (String) map.get("uid");
+        event.employeeId = (String) map.get("employeeId");
+        event.employeeName = (String) map.get("employeeName");
+        event.dateId = (String) map.get("dateId");
+        event.time = (String) map.get("time");
+        event.timestamp = number(map.get("timestamp")).longValue();
+        event.lat = number(map.get("lat")).doubleValue();
+        event.lng = number(map.get("lng")).doubleValue();
+        event.distanceMeters = number(map.get("distanceMeters")).floatValue();
+        event.locationName = (String) map.get("locationName");
+        event.checkInTime = (String) map.get("checkInTime");
+        event.fingerprintVerified = Boolean.TRUE.equals(map.get("fingerprintVerified"));
+        event.gpsVerified = Boolean.TRUE.equals(map.get("gpsVerified"));
+        return event;
+    }
+
+    // JSON-lines form used by the local queue (the Firestore document plus the status snapshot)
+    public JSONObject toJson() {
+        JSONObject obj = new JSONObject(toMap());
+        if (todayStatus != null) {
+            try {
+                obj.put("todayStatus", new JSONObject(todayStatus));
+            } catch (JSONException e) {
+                // Cannot happen for a non-null key
+            }
+        }
+        return obj;
+    }
+
+    public static PunchEvent fromJson(JSONObject obj) throws JSONException {
+        Map<String, Object> map = new HashMap<>();
+        Iterator<String> keys = obj.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = obj.get(key);
+            map.put(key, value == JSONObject.NULL ? null : value);
+        }
+        Object status = map.remove("todayStatus");
+        if (map.get("eventId") == null || map.get("type") == null || map.get("employeeId") == null) {
+            throw new JSONException("Incomplete punch event");
+        }
+        PunchEvent event = fromMap(map);
+        if (status instanceof JSONObject) {
+            Map<String, Object> statusMap = new HashMap<>();
+            JSONObject statusObj = (JSONObject) status;
+            Iterator<String> statusKeys = statusObj.keys();
+            while (statusKeys.hasNext()) {
+                String key = statusKeys.next();
+                Object value = statusObj.get(key);
+                statusMap.put(key, value == JSONObject.NULL ? null : value);
+            }
+            event.todayStatus = statusMap;
+        }
+        return event;
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    // Getters and Setters
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    public Map<String, Object> getTodayStatus() {
+        return todayStatus;
+    }
+
+    public void setTodayStatus(Map<String, Object> todayStatus) {
+        this.todayStatus = todayStatus;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public String getDateId() {
+        return dateId;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setCoordinates(double lat, double lng) {
+        this.lat = lat;
+        this.lng = lng;
+    }
+
+    public float getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(float distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    public String getCheckInTime() {
+        return checkInTime;
+    }
+
+    public void setCheckInTime(String checkInTime) {
+        this.checkInTime = checkInTime;
+    }
+
+    public boolean isFingerprintVerified() {
+        return fingerprintVerified;
+    }
+
+    public void setFingerprintVerified(boolean fingerprintVerified) {
+        this.fingerprintVerified = fingerprintVerified;
+    }
+
+    public boolean isGpsVerified() {
+        return gpsVerified;
+    }
+
+    public void setGpsVerified(boolean gpsVerified) {
+        this.gpsVerified = gpsVerified;
+    }
+}
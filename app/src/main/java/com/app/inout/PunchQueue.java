@@ -0,0 +1,470 @@
+package com.inout.app.utils;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.WriteBatch;
+import com.inout.app.models.PunchEvent;
+import com.inout.app.models.TodayStatus;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Durable, append-only queue of punch events.
+ * 1. A punch is appended (and synced to disk) to a JSON-lines file before anything else happens.
+ * 2. Acknowledged event IDs are appended to a second file; the queue is compacted when empty.
+ * 3. Replay blind-writes each pending event to 'punches/{eventId}' (no read, no contention;
+ *    writing the same event twice is harmless), for a punch of today in the same batch as the
+ *    'todayStatus' snapshot on 'users/{uid}'. The event is acknowledged once that write lands;
+ *    AttendanceMaterializer then rebuilds the daily record, retried on its own if it fails.
+ *    Materializations of the same day run one after another.
+ * 4. Retries back off exponentially with jitter, and replays triggered by a reconnect are
+ *    spread out so a whole site coming back online does not write at the same instant.
+ *    Events are only handed to Firestore while a validated network is up: the SDK would
+ *    otherwise hold them as pending writes and flush them itself (all at once) on reconnect.
+ * 5. Each signed-in user has their own files. Signing out unbinds the queue; punches still
+ *    pending stay on disk and are replayed when that user signs in again.
+ */
+public class PunchQueue {
+
+    private static final String TAG = "PunchQueue";
+    private static final String LOG_FILE = "punch_queue_%s.jsonl";
+    private static final String ACK_FILE = "punch_queue_%s.acks";
+
+    private static final long BASE_BACKOFF_MS = 2000;
+    private static final long MAX_BACKOFF_MS = 5 * 60 * 1000;
+    private static final long RECONNECT_JITTER_MS = 20000;
+    private static final int MAX_MATERIALIZE_ATTEMPTS = 5;
+
+    /**
+     * Notified on the main thread.
+     */
+    public interface Listener {
+        // The pending set changed (event added, acknowledged or rejected)
+        void onQueueChanged();
+
+        // The server permanently refused an event; it has been dropped from the queue
+        void onPunchRejected(PunchEvent event, Exception e);
+    }
+
+    private static PunchQueue instance;
+
+    private final Context context;
+    // Files of the signed-in user; null while nobody is signed in
+    private String uid;
+    private File logFile;
+    private File ackFile;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Random random = new Random();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // In-memory mirror of the files, in punch order
+    private final List<PunchEvent> events = new ArrayList<>();
+    private final Set<String> acked = new HashSet<>();
+    private final Set<String> inFlight = new HashSet<>();
+    // Last materialization per daily record; the next one is chained after it (main thread only)
+    private final Map<String, Task<Void>> materializations = new HashMap<>();
+
+    private int failedAttempts;
+    private boolean started;
+    private boolean online;                   // Validated default network (main thread only)
+    private final Runnable replayRunnable = this::replay;
+
+    private PunchQueue(Context context) {
+        this.context = context;
+        FirebaseUser user = currentUser();
+        bindUser(user != null ? user.getUid() : null);
+    }
+
+    public static synchronized PunchQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new PunchQueue(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Starts replaying whenever the device gets a validated network connection, and follows
+     * sign-ins to the signed-in user's queue. Safe to call repeatedly.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm != null) {
+            online = isValidated(cm.getNetworkCapabilities(cm.getActiveNetwork()));
+            cm.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+                    boolean validated = isValidated(capabilities);
+                    mainHandler.post(() -> setOnline(validated));
+                }
+
+                @Override
+                public void onLost(@NonNull Network network) {
+                    mainHandler.post(() -> setOnline(false));
+                }
+            });
+        }
+        // Punches left from the last run
+        mainHandler.post(() -> {
+            if (online) scheduleReplay((long) (random.nextDouble() * RECONNECT_JITTER_MS));
+        });
+        if (!FirebaseApp.getApps(context).isEmpty()) {
+            FirebaseAuth.getInstance().addAuthStateListener(auth -> {
+                FirebaseUser user = auth.getCurrentUser();
+                if (user != null) onSignedIn(user.getUid());
+            });
+        }
+    }
+
+    private static boolean isValidated(NetworkCapabilities capabilities) {
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+    }
+
+    private void setOnline(boolean validated) {
+        if (validated == online) return;
+        online = validated;
+        if (!validated) {
+            // Nothing is handed to Firestore until the network is back
+            mainHandler.removeCallbacks(replayRunnable);
+            Log.d(TAG, "Network lost, replay paused");
+            return;
+        }
+        long delay = (long) (random.nextDouble() * RECONNECT_JITTER_MS);
+        Log.d(TAG, "Network available, replaying in " + delay + " ms");
+        failedAttempts = 0;
+        scheduleReplay(delay);
+    }
+
+    private void onSignedIn(String signedInUid) {
+        synchronized (this) {
+            if (signedInUid.equals(uid)) return;
+            bindUser(signedInUid);
+        }
+        notifyChanged();
+        // Punches left from this user's last session
+        mainHandler.post(() -> {
+            if (online) scheduleReplay((long) (random.nextDouble() * RECONNECT_JITTER_MS));
+        });
+    }
+
+    /**
+     * Call before signing out. Stops replaying and unbinds the user's queue; their pending
+     * punches stay on disk and are replayed the next time they sign in, never under another user.
+     */
+    public void signOut() {
+        synchronized (this) {
+            bindUser(null);
+        }
+        mainHandler.post(() -> mainHandler.removeCallbacks(replayRunnable));
+        notifyChanged();
+    }
+
+    /**
+     * Switches the in-memory queue to the files of the given user (or to nothing).
+     * Writes still in flight for the previous user are ignored when they complete.
+     */
+    private synchronized void bindUser(String newUid) {
+        uid = newUid;
+        events.clear();
+        acked.clear();
+        inFlight.clear();
+        if (newUid == null) {
+            logFile = null;
+            ackFile = null;
+            return;
+        }
+        logFile = new File(context.getFilesDir(), String.format(LOG_FILE, newUid));
+        ackFile = new File(context.getFilesDir(), String.format(ACK_FILE, newUid));
+        load();
+    }
+
+    private FirebaseUser currentUser() {
+        if (FirebaseApp.getApps(context).isEmpty()) return null;
+        return FirebaseAuth.getInstance().getCurrentUser();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Persists the punch durably in the queue of the event's user, then writes it right away
+     * if the device is online.
+     *
+     * @return false if the event could not be stored on this device.
+     */
+    public boolean enqueue(PunchEvent event) {
+        synchronized (this) {
+            if (event.getUid() == null) return false;
+            if (!event.getUid().equals(uid)) bindUser(event.getUid());
+            try {
+                appendLine(logFile, event.toJson().toString(), true);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to persist punch", e);
+                return false;
+            }
+            events.add(event);
+        }
+        notifyChanged();
+        mainHandler.post(() -> {
+            failedAttempts = 0;
+            if (online) {
+                scheduleReplay(0);
+            } else {
+                Log.d(TAG, "Offline, punch kept until the network is back");
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return Events not yet acknowledged by the server, in punch order.
+     */
+    public synchronized List<PunchEvent> getPending() {
+        List<PunchEvent> pending = new ArrayList<>();
+        for (PunchEvent event : events) {
+            if (!acked.contains(event.getEventId())) pending.add(event);
+        }
+        return pending;
+    }
+
+    public synchronized List<PunchEvent> getPendingForRecord(String recordId) {
+        List<PunchEvent> pending = new ArrayList<>();
+        for (PunchEvent event : events) {
+            if (!acked.contains(event.getEventId()) && event.getRecordId().equals(recordId)) pending.add(event);
+        }
+        return pending;
+    }
+
+    private void scheduleReplay(long delayMs) {
+        mainHandler.removeCallbacks(replayRunnable);
+        mainHandler.postDelayed(replayRunnable, delayMs);
+    }
+
+    /**
+     * Issues a write for every pending event that is not already in flight.
+     * Firestore applies writes from one client in order, so check-in still precedes check-out.
+     */
+    private void replay() {
+        if (!online) {
+            Log.d(TAG, "Offline, replay postponed");
+            return;
+        }
+        FirebaseUser user = currentUser();
+        List<PunchEvent> toSend = new ArrayList<>();
+        synchronized (this) {
+            if (user == null || !user.getUid().equals(uid)) {
+                Log.d(TAG, "Queue user not signed in, replay postponed");
+                return;
+            }
+            for (PunchEvent event : getPending()) {
+                if (inFlight.add(event.getEventId())) toSend.add(event);
+            }
+        }
+        if (toSend.isEmpty()) {
+            compactIfDrained();
+            return;
+        }
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        for (PunchEvent event : toSend) {
+            WriteBatch batch = db.batch();
+            batch.set(db.collection("punches").document(event.getEventId()), event.toMap());
+            // A punch replayed after midnight must not overwrite the new day's status
+            if (event.getUid() != null && event.getTodayStatus() != null
+                    && event.getDateId().equals(TimeUtils.getCurrentDateId())) {
+                batch.update(db.collection("users").document(event.getUid()), "todayStatus", event.getTodayStatus());
+            }
+            batch.commit()
+                    .addOnSuccessListener(aVoid -> {
+                        onWriteAcked(event);
+                        materialize(db, event, 1);
+                    })
+                    .addOnFailureListener(e -> onWriteFailed(event, e));
+        }
+    }
+
+    /**
+     * Runs the day's materialization after any earlier one for the same record, so a slower
+     * fold over fewer punches can never overwrite a newer one. The punch is already stored, so a
+     * failure here never drops it: transient errors are retried with backoff, others only logged
+     * (the next punch of the day materializes again).
+     */
+    private void materialize(FirebaseFirestore db, PunchEvent event, int attempt) {
+        String recordId = event.getRecordId();
+        Task<Void> previous = materializations.get(recordId);
+        if (previous == null) previous = Tasks.forResult(null);
+        float radius = event.getTodayStatus() != null ? TodayStatus.fromMap(event.getTodayStatus()).getRadius() : 0f;
+        Task<Void> next = previous.continueWithTask(ignored -> AttendanceMaterializer.materializeDay(
+                db, event.getEmployeeId(), event.getDateId(), event.getUid(), radius));
+        materializations.put(recordId, next);
+        next.addOnCompleteListener(done -> {
+            if (materializations.get(recordId) == next) materializations.remove(recordId);
+            if (done.isSuccessful()) return;
+            Exception e = done.getException();
+            if (isPermanent(e) || attempt >= MAX_MATERIALIZE_ATTEMPTS) {
+                Log.e(TAG, "Materializing " + recordId + " failed, punch " + event.getEventId() + " kept", e);
+                return;
+            }
+            long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+            long delay = backoff / 2 + (long) (random.nextDouble() * backoff / 2);
+            Log.w(TAG, "Materializing " + recordId + " failed, retry " + attempt + " in " + delay + " ms", e);
+            mainHandler.postDelayed(() -> materialize(db, event, attempt + 1), delay);
+        });
+    }
+
+    private void onWriteAcked(PunchEvent event) {
+        synchronized (this) {
+            if (!event.getUid().equals(uid)) return;
+            inFlight.remove(event.getEventId());
+            markAcked(event.getEventId());
+        }
+        failedAttempts = 0;
+        Log.d(TAG, "Punch " + event.getEventId() + " acknowledged");
+        notifyChanged();
+        compactIfDrained();
+    }
+
+    private void onWriteFailed(PunchEvent event, Exception e) {
+        synchronized (this) {
+            if (!event.getUid().equals(uid)) return;
+            inFlight.remove(event.getEventId());
+        }
+
+        if (isPermanent(e)) {
+            // Retrying will never succeed (e.g. rules reject it); drop it and let the UI roll back
+            Log.e(TAG, "Punch " + event.getEventId() + " rejected", e);
+            synchronized (this) {
+                markAcked(event.getEventId());
+            }
+            for (Listener listener : listeners) listener.onPunchRejected(event, e);
+            notifyChanged();
+            return;
+        }
+
+        failedAttempts++;
+        long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(failedAttempts, 16));
+        // Full jitter: anywhere between half and the whole backoff
+        long delay = backoff / 2 + (long) (random.nextDouble() * backoff / 2);
+        Log.w(TAG, "Punch write failed, retry " + failedAttempts + " in " + delay + " ms", e);
+        scheduleReplay(delay);
+    }
+
+    private static boolean isPermanent(Exception e) {
+        if (!(e instanceof FirebaseFirestoreException)) return false;
+        switch (((FirebaseFirestoreException) e).getCode()) {
+            case PERMISSION_DENIED:
+            case INVALID_ARGUMENT:
+            case FAILED_PRECONDITION:
+            case UNAUTHENTICATED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void notifyChanged() {
+        mainHandler.post(() -> {
+            for (Listener listener : listeners) listener.onQueueChanged();
+        });
+    }
+
+    // --- File handling ---
+
+    private void load() {
+        acked.clear();
+        events.clear();
+        for (String line : readLines(ackFile)) {
+            if (!line.isEmpty()) acked.add(line.trim());
+        }
+        for (String line : readLines(logFile)) {
+            if (line.isEmpty()) continue;
+            try {
+                events.add(PunchEvent.fromJson(new JSONObject(line)));
+            } catch (JSONException e) {
+                // A torn last line from a crash mid-write; everything before it is intact
+                Log.w(TAG, "Skipping unreadable queue entry");
+            }
+        }
+        Log.d(TAG, "Loaded queue: " + getPending().size() + " pending of " + events.size());
+    }
+
+    private void markAcked(String eventId) {
+        if (!acked.add(eventId)) return;
+        try {
+            // Not synced: a lost ack only causes one more (idempotent) write
+            appendLine(ackFile, eventId, false);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to record ack", e);
+        }
+    }
+
+    private synchronized void compactIfDrained() {
+        if (logFile == null || events.isEmpty() || !inFlight.isEmpty() || !getPending().isEmpty()) return;
+        events.clear();
+        acked.clear();
+        if (!logFile.delete() || !ackFile.delete()) {
+            Log.w(TAG, "Queue files could not be removed during compaction");
+        }
+    }
+
+    private static void appendLine(File file, String line, boolean sync) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            if (sync) out.getFD().sync();
+        }
+    }
+
+    private static List<String> readLines(File file) {
+        List<String> lines = new ArrayList<>();
+        if (!file.exists()) return lines;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) lines.add(line);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to read " + file.getName(), e);
+        }
+        return lines;
+    }
+}
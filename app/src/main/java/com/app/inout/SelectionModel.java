@@ -0,0 +1,101 @@
+package com.inout.app.adapters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-selection state of a RecyclerView list, keyed by a stable ID.
+ * 1. The ID -> position index is rebuilt only when the list changes (setItems), never per tap.
+ * 2. Toggling returns the single position to rebind with SELECTION_PAYLOAD.
+ * 3. getSelected() and clear() cost O(selected), not O(list).
+ */
+public class SelectionModel<T> {
+
+    /**
+     * Payload for notifyItemChanged: only the selection overlay/checkmark must be rebound.
+     */
+    public static final Object SELECTION_PAYLOAD = new Object();
+
+    public interface KeyProvider<T> {
+        String getKey(T item);
+    }
+
+    private final KeyProvider<T> keyProvider;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final LinkedHashMap<String, T> selected = new LinkedHashMap<>();   // Selection order
+
+    public SelectionModel(KeyProvider<T> keyProvider) {
+        this.keyProvider = keyProvider;
+    }
+
+    /**
+     * Re-indexes the list; selected items that disappeared are dropped, the others are
+     * replaced by their fresh instances.
+     */
+    public void setItems(List<T> items) {
+        positions.clear();
+        Map<String, T> byKey = selected.isEmpty() ? null : new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String key = keyProvider.getKey(item);
+            if (key == null) continue;
+            positions.put(key, i);
+            if (byKey != null && selected.containsKey(key)) byKey.put(key, item);
+        }
+        if (byKey == null) return;
+
+        Iterator<Map.Entry<String, T>> it = selected.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, T> entry = it.next();
+            T fresh = byKey.get(entry.getKey());
+            if (fresh == null) {
+                it.remove();
+            } else {
+                entry.setValue(fresh);
+            }
+        }
+    }
+
+    public boolean isSelected(T item) {
+        String key = keyProvider.getKey(item);
+        return key != null && selected.containsKey(key);
+    }
+
+    public boolean isEmpty() {
+        return selected.isEmpty();
+    }
+
+    /**
+     * @return The adapter position of the toggled item, or -1 if it is not in the list.
+     */
+    public int toggle(T item) {
+        String key = keyProvider.getKey(item);
+        if (key == null) return -1;
+        if (selected.remove(key) == null) selected.put(key, item);
+        Integer position = positions.get(key);
+        return position != null ? position : -1;
+    }
+
+    public List<T> getSelected() {
+        return new ArrayList<>(selected.values());
+    }
+
+    /**
+     * Clears the selection.
+     *
+     * @return Positions of the items that were selected (to rebind).
+     */
+    public List<Integer> clear() {
+        List<Integer> changed = new ArrayList<>(selected.size());
+        for (String key : selected.keySet()) {
+            Integer position = positions.get(key);
+            if (position != null) changed.add(position);
+        }
+        selected.clear();
+        return changed;
+    }
+}
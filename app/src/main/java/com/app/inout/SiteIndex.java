@@ -0,0 +1,197 @@
+package com.inout.app.utils;
+
+import com.inout.app.models.CompanyConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Static k-d tree over office coordinates for fast nearest-site lookups.
+ * Sites are stored as 3D points on the unit sphere, so straight-line (chord) distance
+ * orders sites exactly like the real surface distance, with no special cases at the poles
+ * or the date line. Build is O(n log^2 n), queries are O(log n) on average.
+ */
+public class SiteIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    // Sphere vs. ellipsoid differ by up to ~0.5%; the index is slightly generous and callers confirm precisely
+    private static final double RADIUS_TOLERANCE = 1.01;
+
+    private final CompanyConfig[] sites;
+    private final double[] xs, ys, zs;
+    // Implicit tree: the node of range [lo, hi) is at index (lo + hi) / 2, split axis = depth % 3
+    private final int[] order;
+    private final float maxRadius;
+
+    public SiteIndex(List<CompanyConfig> siteList) {
+        int n = siteList.size();
+        sites = siteList.toArray(new CompanyConfig[0]);
+        xs = new double[n];
+        ys = new double[n];
+        zs = new double[n];
+        order = new int[n];
+
+        float largestRadius = 0;
+        double[] point = new double[3];
+        for (int i = 0; i < n; i++) {
+            toUnitVector(sites[i].getLatitude(), sites[i].getLongitude(), point);
+            xs[i] = point[0];
+            ys[i] = point[1];
+            zs[i] = point[2];
+            order[i] = i;
+            largestRadius = Math.max(largestRadius, sites[i].getRadius());
+        }
+        maxRadius = largestRadius;
+        build(0, n, 0);
+    }
+
+    public int size() {
+        return sites.length;
+    }
+
+    public boolean isEmpty() {
+        return sites.length == 0;
+    }
+
+    public List<CompanyConfig> getSites() {
+        List<CompanyConfig> list = new ArrayList<>(sites.length);
+        for (CompanyConfig site : sites) list.add(site);
+        return list;
+    }
+
+    /**
+     * @return The site whose center is closest to the point, or null if the index is empty.
+     */
+    public CompanyConfig findNearest(double lat, double lng) {
+        if (sites.length == 0) return null;
+        double[] q = new double[3];
+        toUnitVector(lat, lng, q);
+        double[] best = {Double.MAX_VALUE};
+        int[] bestIndex = {-1};
+        nearest(0, sites.length, 0, q, best, bestIndex);
+        return sites[bestIndex[0]];
+    }
+
+    /**
+     * All sites whose radius circle contains the point (sites may have different radii), nearest
+     * first. Only sites within the largest radius are visited. Candidates only: polygon sites store
+     * their circumscribed circle and the sphere model is approximate, so callers confirm them with
+     * LocationHelper.firstSiteContaining().
+     */
+    public List<CompanyConfig> findAllContaining(double lat, double lng) {
+        List<CompanyConfig> result = new ArrayList<>();
+        if (sites.length == 0) return result;
+        double[] q = new double[3];
+        toUnitVector(lat, lng, q);
+
+        double searchChord = metersToChord(maxRadius * RADIUS_TOLERANCE);
+        List<Integer> candidates = new ArrayList<>();
+        range(0, sites.length, 0, q, searchChord * searchChord, candidates);
+
+        List<double[]> hits = new ArrayList<>();
+        for (int i : candidates) {
+            double chordSq = chordSquared(i, q);
+            double radiusChord = metersToChord(sites[i].getRadius() * RADIUS_TOLERANCE);
+            if (chordSq <= radiusChord * radiusChord) {
+                hits.add(new double[]{chordSq, i});
+            }
+        }
+        Collections.sort(hits, (a, b) -> Double.compare(a[0], b[0]));
+        for (double[] hit : hits) result.add(sites[(int) hit[1]]);
+        return result;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 3);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Quickselect: puts the median (by axis) at position k, smaller left, larger right.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = coord(order[(left + right) >>> 1], axis);
+            int i = left, j = right;
+            while (i <= j) {
+                while (coord(order[i], axis) < pivot) i++;
+                while (coord(order[j], axis) > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    private void nearest(int lo, int hi, int depth, double[] q, double[] best, int[] bestIndex) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int node = order[mid];
+
+        double d = chordSquared(node, q);
+        if (d < best[0]) {
+            best[0] = d;
+            bestIndex[0] = node;
+        }
+
+        int axis = depth % 3;
+        double diff = q[axis] - coord(node, axis);
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, q, best, bestIndex);
+            if (diff * diff < best[0]) nearest(mid + 1, hi, depth + 1, q, best, bestIndex);
+        } else {
+            nearest(mid + 1, hi, depth + 1, q, best, bestIndex);
+            if (diff * diff < best[0]) nearest(lo, mid, depth + 1, q, best, bestIndex);
+        }
+    }
+
+    private void range(int lo, int hi, int depth, double[] q, double limitSq, List<Integer> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int node = order[mid];
+
+        if (chordSquared(node, q) <= limitSq) out.add(node);
+
+        int axis = depth % 3;
+        double diff = q[axis] - coord(node, axis);
+        if (diff < 0 || diff * diff <= limitSq) range(lo, mid, depth + 1, q, limitSq, out);
+        if (diff >= 0 || diff * diff <= limitSq) range(mid + 1, hi, depth + 1, q, limitSq, out);
+    }
+
+    private double coord(int i, int axis) {
+        return axis == 0 ? xs[i] : axis == 1 ? ys[i] : zs[i];
+    }
+
+    private double chordSquared(int i, double[] q) {
+        double dx = xs[i] - q[0], dy = ys[i] - q[1], dz = zs[i] - q[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static void toUnitVector(double lat, double lng, double[] out) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lng);
+        double cosPhi = Math.cos(phi);
+        out[0] = cosPhi * Math.cos(lambda);
+        out[1] = cosPhi * Math.sin(lambda);
+        out[2] = Math.sin(phi);
+    }
+
+    /**
+     * Chord length on the unit sphere for a surface distance in meters.
+     */
+    private static double metersToChord(double meters) {
+        return 2 * Math.sin(meters / (2 * EARTH_RADIUS_METERS));
+    }
+}
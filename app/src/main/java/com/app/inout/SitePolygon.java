@@ -0,0 +1,185 @@
+package com.inout.app.utils;
+
+import com.google.firebase.firestore.GeoPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed polygon boundary of a site (campus, warehouse, multi-building office).
+ * 1. A lat/lng bounding box rejects far-away points with four comparisons.
+ * 2. Vertices are projected once to a local meter grid around the polygon center.
+ * 3. Edges are bucketed into horizontal bands, so a containment test only ray-casts
+ *    against the few edges crossing the point's band instead of the whole outline.
+ * Not intended for sites crossing the 180th meridian.
+ */
+public class SitePolygon {
+
+    private static final double METERS_PER_DEGREE = 111320.0;
+    private static final int MAX_BANDS = 64;
+
+    private final double minLat, maxLat, minLng, maxLng;
+    private final double originLat, originLng, metersPerDegreeLng;
+
+    // Edge i goes from (x1[i], y1[i]) to (x2[i], y2[i]) in local meters
+    private final double[] x1, y1, x2, y2;
+    private final double minY, bandHeight;
+    private final int[][] bandEdges;
+
+    private final double centroidLat, centroidLng;
+    private final float circumRadiusMeters;
+
+    public SitePolygon(List<GeoPoint> vertices) {
+        if (vertices == null || vertices.size() < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices");
+        }
+        int n = vertices.size();
+
+        double loLat = Double.MAX_VALUE, hiLat = -Double.MAX_VALUE;
+        double loLng = Double.MAX_VALUE, hiLng = -Double.MAX_VALUE;
+        for (GeoPoint p : vertices) {
+            loLat = Math.min(loLat, p.getLatitude());
+            hiLat = Math.max(hiLat, p.getLatitude());
+            loLng = Math.min(loLng, p.getLongitude());
+            hiLng = Math.max(hiLng, p.getLongitude());
+        }
+        minLat = loLat;
+        maxLat = hiLat;
+        minLng = loLng;
+        maxLng = hiLng;
+
+        originLat = (minLat + maxLat) / 2;
+        originLng = (minLng + maxLng) / 2;
+        metersPerDegreeLng = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLat));
+
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = toX(vertices.get(i).getLongitude());
+            ys[i] = toY(vertices.get(i).getLatitude());
+        }
+
+        x1 = new double[n];
+        y1 = new double[n];
+        x2 = new double[n];
+        y2 = new double[n];
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            x1[i] = xs[i];
+            y1[i] = ys[i];
+            x2[i] = xs[j];
+            y2[i] = ys[j];
+        }
+
+        // Band index: which edges overlap each horizontal strip of the bounding box
+        minY = toY(minLat);
+        double height = Math.max(toY(maxLat) - minY, 1e-6);
+        int bands = Math.max(1, Math.min(MAX_BANDS, n));
+        bandHeight = height / bands;
+        List<List<Integer>> buckets = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) buckets.add(new ArrayList<>());
+        for (int i = 0; i < n; i++) {
+            int from = clampBand(bandOf(Math.min(y1[i], y2[i])), bands);
+            int to = clampBand(bandOf(Math.max(y1[i], y2[i])), bands);
+            for (int b = from; b <= to; b++) buckets.get(b).add(i);
+        }
+        bandEdges = new int[bands][];
+        for (int b = 0; b < bands; b++) {
+            List<Integer> bucket = buckets.get(b);
+            bandEdges[b] = new int[bucket.size()];
+            for (int k = 0; k < bucket.size(); k++) bandEdges[b][k] = bucket.get(k);
+        }
+
+        // Area centroid (shoelace) for the site's display center
+        double area = 0, cx = 0, cy = 0;
+        for (int i = 0; i < n; i++) {
+            double cross = x1[i] * y2[i] - x2[i] * y1[i];
+            area += cross;
+            cx += (x1[i] + x2[i]) * cross;
+            cy += (y1[i] + y2[i]) * cross;
+        }
+        if (Math.abs(area) < 1e-9) {
+            cx = 0;
+            cy = 0;
+        } else {
+            cx /= (3 * area);
+            cy /= (3 * area);
+        }
+        centroidLat = originLat + cy / METERS_PER_DEGREE;
+        centroidLng = originLng + cx / metersPerDegreeLng;
+
+        double maxDistSq = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = xs[i] - cx, dy = ys[i] - cy;
+            maxDistSq = Math.max(maxDistSq, dx * dx + dy * dy);
+        }
+        circumRadiusMeters = (float) Math.sqrt(maxDistSq);
+    }
+
+    /**
+     * Point-in-polygon test (even-odd rule).
+     */
+    public boolean contains(double lat, double lng) {
+        if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) return false;
+
+        double px = toX(lng), py = toY(lat);
+        int[] edges = bandEdges[clampBand(bandOf(py), bandEdges.length)];
+        boolean inside = false;
+        for (int i : edges) {
+            // Half-open rule so a vertex exactly on the ray is counted once
+            if ((y1[i] > py) != (y2[i] > py)) {
+                double xCross = x1[i] + (py - y1[i]) * (x2[i] - x1[i]) / (y2[i] - y1[i]);
+                if (px < xCross) inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * @return Distance in meters from the point to the nearest boundary edge.
+     */
+    public double distanceToBoundary(double lat, double lng) {
+        double px = toX(lng), py = toY(lat);
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < x1.length; i++) {
+            double dx = x2[i] - x1[i], dy = y2[i] - y1[i];
+            double lenSq = dx * dx + dy * dy;
+            double t = lenSq == 0 ? 0 : ((px - x1[i]) * dx + (py - y1[i]) * dy) / lenSq;
+            t = Math.max(0, Math.min(1, t));
+            double ex = x1[i] + t * dx - px, ey = y1[i] + t * dy - py;
+            best = Math.min(best, ex * ex + ey * ey);
+        }
+        return Math.sqrt(best);
+    }
+
+    public double getCentroidLat() {
+        return centroidLat;
+    }
+
+    public double getCentroidLng() {
+        return centroidLng;
+    }
+
+    /**
+     * @return Radius of the smallest circle around the centroid containing every vertex.
+     */
+    public float getCircumRadiusMeters() {
+        return circumRadiusMeters;
+    }
+
+    private double toX(double lng) {
+        return (lng - originLng) * metersPerDegreeLng;
+    }
+
+    private double toY(double lat) {
+        return (lat - originLat) * METERS_PER_DEGREE;
+    }
+
+    private int bandOf(double y) {
+        return (int) Math.floor((y - minY) / bandHeight);
+    }
+
+    private static int clampBand(int band, int bands) {
+        return Math.max(0, Math.min(bands - 1, band));
+    }
+}
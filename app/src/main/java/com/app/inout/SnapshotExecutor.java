@@ -0,0 +1,27 @@
+package com.inout.app.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background thread for Firestore listener and get() callbacks.
+ * Pass it to addSnapshotListener(Executor, ...) / addOnSuccessListener(Executor, ...), map the
+ * documents there (toObject, sorting, derived fields) and hand only finished, immutable results
+ * to the main thread (e.g., FrameCoalescer.post). One thread keeps each listener's snapshots in order.
+ */
+public final class SnapshotExecutor {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-mapper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SnapshotExecutor() {
+    }
+
+    public static Executor get() {
+        return EXECUTOR;
+    }
+}
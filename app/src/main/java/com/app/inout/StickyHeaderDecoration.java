@@ -0,0 +1,93 @@
+package com.inout.app.adapters;
+
+import android.graphics.Canvas;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Draws the header of the section at the top of a RecyclerView over the list, and lets the
+ * next section's header push it up. The sticky copy is a single detached view: bound only
+ * when the top section changes (or after invalidateHeader()), measured only when the list width
+ * changes, and drawn with a translate.
+ */
+public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    /**
+     * Implemented by sectioned adapters.
+     */
+    public interface HeaderProvider {
+        boolean isHeader(int position);
+
+        int getHeaderPositionFor(int position);
+
+        View createHeaderView(ViewGroup parent);
+
+        void bindHeader(View header, int headerPosition);
+    }
+
+    private final HeaderProvider provider;
+    private View header;
+    private int boundPosition = RecyclerView.NO_POSITION;
+    private int measuredWidth = -1;
+
+    public StickyHeaderDecoration(HeaderProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Rebind on the next frame, e.g. after the adapter's list was replaced.
+     */
+    public void invalidateHeader() {
+        boundPosition = RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        View topChild = parent.getChildAt(0);
+        if (topChild == null) return;
+        int topPosition = parent.getChildAdapterPosition(topChild);
+        if (topPosition == RecyclerView.NO_POSITION) return;
+
+        int headerPosition = provider.getHeaderPositionFor(topPosition);
+        if (headerPosition == RecyclerView.NO_POSITION) return;
+        // The real header is fully visible at the top: nothing to draw over it
+        if (headerPosition == topPosition && topChild.getTop() >= 0) return;
+
+        if (header == null) header = provider.createHeaderView(parent);
+        if (headerPosition != boundPosition) {
+            provider.bindHeader(header, headerPosition);
+            boundPosition = headerPosition;
+            measuredWidth = -1;
+        }
+        if (measuredWidth != parent.getWidth()) {
+            measureHeader(parent);
+            measuredWidth = parent.getWidth();
+        }
+
+        // Push up by the next section's header once it reaches the sticky one
+        int offset = 0;
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position > headerPosition && provider.isHeader(position)) {
+                offset = Math.min(0, child.getTop() - header.getHeight());
+                break;
+            }
+        }
+
+        canvas.save();
+        canvas.translate(0, offset);
+        header.draw(canvas);
+        canvas.restore();
+    }
+
+    private void measureHeader(RecyclerView parent) {
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(parent.getWidth(), View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        header.measure(widthSpec, heightSpec);
+        header.layout(0, 0, header.getMeasuredWidth(), header.getMeasuredHeight());
+    }
+}
@@ -4,6 +4,7 @@ import android.util.Log;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
@@ -55,6 +56,16 @@ public class TimeUtils {
     public static String calculateDuration(String checkInTimeStr, String checkOutTimeStr) {
         if (checkInTimeStr == null || checkOutTimeStr == null) return "0h 00m";
 
+        long minutes = durationMinutes(checkInTimeStr, checkOutTimeStr);
+        return minutes < 0 ? "Error" : formatDuration(minutes);
+    }
+
+    /**
+     * @return Minutes between two display times (wrapping past midnight), or -1 if they cannot be parsed.
+     */
+    public static long durationMinutes(String checkInTimeStr, String checkOutTimeStr) {
+        if (checkInTimeStr == null || checkOutTimeStr == null) return -1;
+
         try {
             // We need to parse relative to the same day to get the difference
             // Since the input is just time (HH:mm a), we use a dummy date.
@@ -68,18 +79,57 @@ public class TimeUtils {
                 if (diffMillis < 0) {
                     diffMillis += TimeUnit.DAYS.toMillis(1);
                 }
-
-                long hours = TimeUnit.MILLISECONDS.toHours(diffMillis);
-                long minutes = TimeUnit.MILLISECONDS.toMinutes(diffMillis) % 60;
-
-                return String.format(Locale.US, "%dh %02dm", hours, minutes);
+                return TimeUnit.MILLISECONDS.toMinutes(diffMillis);
             }
         } catch (ParseException e) {
             Log.e(TAG, "Error calculating duration", e);
         }
-        return "Error";
+        return -1;
+    }
+
+    /**
+     * @return A duration like "8h 05m".
+     */
+    public static String formatDuration(long totalMinutes) {
+        return String.format(Locale.US, "%dh %02dm", totalMinutes / 60, totalMinutes % 60);
+    }
+
+    /**
+     * @return Month key of a date ID (e.g., "2026-01" for "2026-01-22").
+     */
+    public static String getMonthId(String dateId) {
+        return dateId.substring(0, 7);
+    }
+
+    /**
+     * @return Month key of the current month (e.g., "2026-01").
+     */
+    public static String getCurrentMonthId() {
+        return getMonthId(getCurrentDateId());
+    }
+
+    /**
+     * @return Local midnight of the first day of a month key, or the first day of the next
+     *         month when nextMonth is set (exclusive upper bound of a month range).
+     */
+    public static long getMonthStartMillis(String monthId, boolean nextMonth) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(Integer.parseInt(monthId.substring(0, 4)), Integer.parseInt(monthId.substring(5, 7)) - 1, 1);
+        if (nextMonth) cal.add(Calendar.MONTH, 1);
+        return cal.getTimeInMillis();
     }
     
+    /**
+     * @return Month key {@code delta} months from a month key (negative = earlier).
+     */
+    public static String addMonths(String monthId, int delta) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(getMonthStartMillis(monthId, false));
+        cal.add(Calendar.MONTH, delta);
+        return String.format(Locale.US, "%04d-%02d", cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1);
+    }
+
     public static String formatTimestampToDate(long timestamp) {
         return DATE_ID_FORMAT.format(new Date(timestamp));
     }
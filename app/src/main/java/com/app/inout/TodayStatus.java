@@ -0,0 +1,232 @@
+package com.inout.app.models;
+
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.IgnoreExtraProperties;
+import com.google.firebase.firestore.PropertyName;
+import com.inout.app.utils.TimeUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Small denormalized summary of an employee's attendance for one day, stored as the
+ * 'todayStatus' field of 'users/{uid}'. Written in the same batch as every punch, so the
+ * check-in screen and the admin roster can show today's state from the user document alone.
+ */
+@IgnoreExtraProperties
+public class TodayStatus {
+
+    public static final String STATE_CHECKED_IN = "checked_in";
+    public static final String STATE_CHECKED_OUT = "checked_out";
+
+    private String date;                // yyyy-MM-dd this status belongs to
+    private String state;
+    private String firstCheckInTime;    // First check-in of the day
+    private String checkInTime;         // Start of the current (or last) session
+    private long checkInTimestamp;
+    private String checkOutTime;
+    private String locationName;
+    private float radius;               // Site radius at the time of the punch
+    private long totalMinutes;          // Closed sessions only
+    private int sessions;
+    private long updatedAt;
+
+    public TodayStatus() {
+        // Default constructor required for Firestore
+    }
+
+    /**
+     * Status after a punch, taken from the daily record with that punch applied.
+     */
+    public static TodayStatus fromRecord(AttendanceRecord record, float radius, long now) {
+        TodayStatus status = new TodayStatus();
+        boolean open = PunchEvent.isSessionOpen(record);
+        status.date = record.getDate();
+        status.state = open ? STATE_CHECKED_IN : STATE_CHECKED_OUT;
+        status.firstCheckInTime = record.getCheckInTime();
+        status.checkInTime = record.getLastCheckInTime() != null ? record.getLastCheckInTime() : record.getCheckInTime();
+        status.checkInTimestamp = record.getLastCheckInTimestamp();
+        status.checkOutTime = open ? null : record.getCheckOutTime();
+        status.locationName = record.getLocationName();
+        status.radius = radius;
+        status.totalMinutes = record.getTotalMinutes();
+        status.sessions = record.getSessions();
+        status.updatedAt = now;
+        return status;
+    }
+
+    /**
+     * Rebuilds the daily record as far as the status knows it (enough to render the check-in screen).
+     */
+    public AttendanceRecord toRecord(String employeeId, String employeeName) {
+        AttendanceRecord record = new AttendanceRecord(employeeId, employeeName, date, checkInTimestamp);
+        record.setRecordId(employeeId + "_" + date);
+        record.setCheckInTime(firstCheckInTime);
+        record.setLastCheckInTime(checkInTime);
+        record.setLastCheckInTimestamp(checkInTimestamp);
+        record.setCheckOutTime(STATE_CHECKED_OUT.equals(state) ? checkOutTime : null);
+        record.setLocationName(locationName);
+        record.setTotalMinutes(totalMinutes);
+        record.setTotalHours(TimeUtils.formatDuration(totalMinutes));
+        record.setSessions(sessions);
+        return record;
+    }
+
+    @Exclude
+    public boolean isForDate(String dateId) {
+        return dateId != null && dateId.equals(date);
+    }
+
+    @Exclude
+    public boolean isCheckedIn() {
+        return STATE_CHECKED_IN.equals(state);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("date", date);
+        map.put("state", state);
+        map.put("firstCheckInTime", firstCheckInTime);
+        map.put("checkInTime", checkInTime);
+        map.put("checkInTimestamp", checkInTimestamp);
+        map.put("checkOutTime", checkOutTime);
+        map.put("locationName", locationName);
+        map.put("radius", (double) radius);
+        map.put("totalMinutes", totalMinutes);
+        map.put("sessions", sessions);
+        map.put("updatedAt", updatedAt);
+        return map;
+    }
+
+    public static TodayStatus fromMap(Map<String, Object> map) {
+        TodayStatus status = new TodayStatus();
+        status.date = (String) map.get("date");
+        status.state = (String) map.get("state");
+        status.firstCheckInTime = (String) map.get("firstCheckInTime");
+        status.checkInTime = (String) map.get("checkInTime");
+        status.checkInTimestamp = number(map.get("checkInTimestamp")).longValue();
+        status.checkOutTime = (String) map.get("checkOutTime");
+        status.locationName = (String) map.get("locationName");
+        status.radius = number(map.get("radius")).floatValue();
+        status.totalMinutes = number(map.get("totalMinutes")).longValue();
+        status.sessions = number(map.get("sessions")).intValue();
+        status.updatedAt = number(map.get("updatedAt")).longValue();
+        return status;
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    // Getters and Setters with explicit PropertyName mapping
+
+    @PropertyName("date")
+    public String getDate() {
+        return date;
+    }
+
+    @PropertyName("date")
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    @PropertyName("state")
+    public String getState() {
+        return state;
+    }
+
+    @PropertyName("state")
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    @PropertyName("firstCheckInTime")
+    public String getFirstCheckInTime() {
+        return firstCheckInTime;
+    }
+
+    @PropertyName("firstCheckInTime")
+    public void setFirstCheckInTime(String firstCheckInTime) {
+        this.firstCheckInTime = firstCheckInTime;
+    }
+
+    @PropertyName("checkInTime")
+    public String getCheckInTime() {
+        return checkInTime;
+    }
+
+    @PropertyName("checkInTime")
+    public void setCheckInTime(String checkInTime) {
+        this.checkInTime = checkInTime;
+    }
+
+    @PropertyName("checkInTimestamp")
+    public long getCheckInTimestamp() {
+        return checkInTimestamp;
+    }
+
+    @PropertyName("checkInTimestamp")
+    public void setCheckInTimestamp(long checkInTimestamp) {
+        this.checkInTimestamp = checkInTimestamp;
+    }
+
+    @PropertyName("checkOutTime")
+    public String getCheckOutTime() {
+        return checkOutTime;
+    }
+
+    @PropertyName("checkOutTime")
+    public void setCheckOutTime(String checkOutTime) {
+        this.checkOutTime = checkOutTime;
+    }
+
+    @PropertyName("locationName")
+    public String getLocationName() {
+        return locationName;
+    }
+
+    @PropertyName("locationName")
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    @PropertyName("radius")
+    public float getRadius() {
+        return radius;
+    }
+
+    @PropertyName("radius")
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    @PropertyName("totalMinutes")
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    @PropertyName("totalMinutes")
+    public void setTotalMinutes(long totalMinutes) {
+        this.totalMinutes = totalMinutes;
+    }
+
+    @PropertyName("sessions")
+    public int getSessions() {
+        return sessions;
+    }
+
+    @PropertyName("sessions")
+    public void setSessions(int sessions) {
+        this.sessions = sessions;
+    }
+
+    @PropertyName("updatedAt")
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PropertyName("updatedAt")
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,8 +1,12 @@
 package com.inout.app.models;
 
+import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.IgnoreExtraProperties;
 import com.google.firebase.firestore.PropertyName;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Model class representing a user in the 'users' Firestore collection.
  * This is the bridge between Firestore and the app memory.
@@ -23,6 +27,12 @@ public class User {
     // For Employees: The ID of the location they are assigned to for check-in
     private String assignedLocationId; 
 
+    // For Employees rotating across sites: every location they may check in at
+    private List<String> assignedLocationIds;
+
+    // Denormalized attendance summary of the current day, written with every punch
+    private TodayStatus todayStatus;
+
     public User() {
         // Default constructor required for Firestore
     }
@@ -125,4 +135,44 @@ public class User {
     public void setAssignedLocationId(String assignedLocationId) {
         this.assignedLocationId = assignedLocationId;
     }
-}
\ No newline at end of file
+
+    @PropertyName("assignedLocationIds")
+    public List<String> getAssignedLocationIds() {
+        return assignedLocationIds;
+    }
+
+    @PropertyName("assignedLocationIds")
+    public void setAssignedLocationIds(List<String> assignedLocationIds) {
+        this.assignedLocationIds = assignedLocationIds;
+    }
+
+    /**
+     * All sites the employee may check in at: the primary assignment plus the multi-site list,
+     * without duplicates. Older profiles only have the primary field.
+     */
+    @Exclude
+    public List<String> getAllAssignedLocationIds() {
+        List<String> ids = new ArrayList<>();
+        if (assignedLocationId != null && !assignedLocationId.isEmpty()) {
+            ids.add(assignedLocationId);
+        }
+        if (assignedLocationIds != null) {
+            for (String id : assignedLocationIds) {
+                if (id != null && !id.isEmpty() && !ids.contains(id)) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    @PropertyName("todayStatus")
+    public TodayStatus getTodayStatus() {
+        return todayStatus;
+    }
+
+    @PropertyName("todayStatus")
+    public void setTodayStatus(TodayStatus todayStatus) {
+        this.todayStatus = todayStatus;
+    }
+}